@@ -0,0 +1,530 @@
+/**
+ * BPlusTree.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An ordered set with the same core operations as BST, stored as a B+ tree.
+ * Each node packs up to maxKeys values into one array, so a lookup touches
+ * a few contiguous arrays instead of one scattered Node per level. Values
+ * live only in the leaves, which are linked left to right, so an in-order
+ * scan walks the leaf arrays without going back up the tree.
+ *
+ * An internal node with k keys has k + 1 children; every value under
+ * children[i] is less than keys[i], and every value under children[i + 1]
+ * is greater than or equal to it.
+ * @param <T> the generic data stored in the tree
+ */
+public class BPlusTree<T> implements Iterable<T> {
+    private class Node {
+        private final Object[] keys = new Object[maxKeys + 1]; // one spare for a split
+        private final Node[] children; // null for a leaf
+        private int count; // keys in use
+        private Node next; // the leaf to the right, for leaves only
+
+        @SuppressWarnings("unchecked")
+        public Node(boolean leaf) {
+            children = leaf ? null : (Node[]) new BPlusTree<?>.Node[maxKeys + 2];
+        }
+
+        public boolean isLeaf() {
+            return children == null;
+        }
+
+        @SuppressWarnings("unchecked")
+        public T key(int i) {
+            return (T) keys[i];
+        }
+    }
+
+    /**
+     * Visits the values between two bounds in order by walking the leaf
+     * links. Inserting or removing while iterating makes next throw a
+     * ConcurrentModificationException.
+     */
+    private class RangeIterator implements Iterator<T> {
+        private Node leaf;
+        private int index;
+        private final T hi;
+        private final int expectedModCount;
+
+        public RangeIterator(T lo, T hi) {
+            this.hi = hi;
+            this.expectedModCount = modCount;
+            if (lo == null) {
+                leaf = first;
+                index = 0;
+            } else {
+                leaf = leafFor(lo);
+                index = lowerBound(leaf, lo);
+            }
+            skipEmpty();
+        }
+
+        private void skipEmpty() {
+            while (leaf != null && index == leaf.count) {
+                leaf = leaf.next;
+                index = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null && (hi == null || order.compare(leaf.key(index), hi) <= 0);
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more values in range.");
+            }
+            T data = leaf.key(index++);
+            skipEmpty();
+            return data;
+        }
+    }
+
+    private static final int DEFAULT_MAX_KEYS = 64;
+
+    private final int maxKeys;
+    private final int minKeys; // for every node but the root
+    private final Comparator<T> order;
+    private Node root;
+    private Node first; // the leftmost leaf; merges always keep the left node
+    private int size;
+    private int height;
+    private int modCount; // number of inserts and removes, for the iterators
+    private Object promoted; // the separator handed up by the last split
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Constructor for an empty BPlusTree with up to 64 values per node.
+     * @param order the way the tree is organized.
+     * @precondition order != null
+     * @throws NullPointerException when the precondition is violated.
+     */
+    public BPlusTree(Comparator<T> order) throws NullPointerException {
+        this(order, DEFAULT_MAX_KEYS);
+    }
+
+    /**
+     * Constructor for an empty BPlusTree.
+     * @param order the way the tree is organized.
+     * @param maxKeys the most values a node may hold.
+     * @precondition order != null, maxKeys >= 3
+     * @throws NullPointerException when order is null.
+     * @throws IllegalArgumentException when maxKeys < 3.
+     */
+    public BPlusTree(Comparator<T> order, int maxKeys)
+            throws NullPointerException, IllegalArgumentException {
+        if (order == null) {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        if (maxKeys < 3) {
+            throw new IllegalArgumentException("A node must hold at least 3 keys");
+        }
+        this.order = order;
+        this.maxKeys = maxKeys;
+        this.minKeys = maxKeys / 2;
+        clear();
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Determines whether the tree is empty.
+     * @return whether the tree is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of values in the tree.
+     * @return the size of the tree.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the height of the tree by counting edges from the root
+     * down to the leaves.
+     * @return the height of the tree, -1 when it is empty.
+     */
+    public int getHeight() {
+        return size == 0 ? -1 : height;
+    }
+
+    /**
+     * Returns the smallest value in the tree.
+     * @precondition !isEmpty()
+     * @return the smallest value in the tree.
+     * @throws NoSuchElementException when the precondition is violated.
+     */
+    public T findMin() throws NoSuchElementException {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Tree is empty.");
+        }
+        return first.key(0);
+    }
+
+    /**
+     * Returns the largest value in the tree.
+     * @precondition !isEmpty()
+     * @return the largest value in the tree.
+     * @throws NoSuchElementException when the precondition is violated.
+     */
+    public T findMax() throws NoSuchElementException {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Tree is empty.");
+        }
+        Node node = root;
+        while (!node.isLeaf()) {
+            node = node.children[node.count];
+        }
+        return node.key(node.count - 1);
+    }
+
+    /**
+     * Searches for a specified value in the tree.
+     * @param data the value to search for.
+     * @return the data stored in the tree, otherwise null.
+     */
+    public T search(T data) {
+        Node leaf = leafFor(data);
+        int i = lowerBound(leaf, data);
+        return i < leaf.count && order.compare(data, leaf.key(i)) == 0 ? leaf.key(i) : null;
+    }
+
+    /**
+     * Returns an Iterator over the values from lo to hi, both included,
+     * in order.
+     * @param lo the smallest value wanted, or null for no lower bound.
+     * @param hi the largest value wanted, or null for no upper bound.
+     * @return an Iterator over the values in range.
+     */
+    public Iterator<T> range(T lo, T hi) {
+        return new RangeIterator(lo, hi);
+    }
+
+    /**
+     * Returns an Iterator over all values in order.
+     * @return an Iterator over the tree.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return range(null, null);
+    }
+
+    /**
+     * Returns the leaf in which a value is or would be stored.
+     * @param data the value.
+     * @return the leaf.
+     */
+    private Node leafFor(T data) {
+        Node node = root;
+        while (!node.isLeaf()) {
+            node = node.children[childIndex(node, data)];
+        }
+        return node;
+    }
+
+    /**
+     * Returns the index of the first key in a node that is not less
+     * than data, found by binary search.
+     * @param node the node.
+     * @param data the value.
+     * @return the index, node.count if every key is less.
+     */
+    private int lowerBound(Node node, T data) {
+        int lo = 0;
+        int hi = node.count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (order.compare(node.key(mid), data) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns which child of an internal node leads to data: the number
+     * of keys less than or equal to it.
+     * @param node the internal node.
+     * @param data the value.
+     * @return the child index.
+     */
+    private int childIndex(Node node, T data) {
+        int lo = 0;
+        int hi = node.count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (order.compare(node.key(mid), data) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Inserts a new value in the tree. Duplicates are not inserted.
+     * @param data the data to insert.
+     */
+    public void insert(T data) {
+        Node sibling = insert(root, data);
+        if (sibling != null) {
+            Node grown = new Node(false);
+            grown.keys[0] = promoted;
+            grown.children[0] = root;
+            grown.children[1] = sibling;
+            grown.count = 1;
+            root = grown;
+            height++;
+        }
+        promoted = null;
+    }
+
+    /**
+     * Helper method to insert.
+     * @param node the root of the subtree.
+     * @param data the data to insert.
+     * @return the new right sibling if node was split, otherwise null.
+     */
+    private Node insert(Node node, T data) {
+        if (node.isLeaf()) {
+            int i = lowerBound(node, data);
+            if (i < node.count && order.compare(data, node.key(i)) == 0) {
+                return null; // duplicates are not inserted
+            }
+            System.arraycopy(node.keys, i, node.keys, i + 1, node.count - i);
+            node.keys[i] = data;
+            node.count++;
+            size++;
+            modCount++;
+            return node.count > maxKeys ? splitLeaf(node) : null;
+        }
+        int c = childIndex(node, data);
+        Node sibling = insert(node.children[c], data);
+        if (sibling == null) {
+            return null;
+        }
+        System.arraycopy(node.keys, c, node.keys, c + 1, node.count - c);
+        System.arraycopy(node.children, c + 1, node.children, c + 2, node.count - c);
+        node.keys[c] = promoted;
+        node.children[c + 1] = sibling;
+        node.count++;
+        return node.count > maxKeys ? splitInternal(node) : null;
+    }
+
+    /**
+     * Moves the upper half of an overfull leaf into a new leaf linked
+     * after it, and promotes the new leaf's first value.
+     * @param node the leaf.
+     * @return the new leaf.
+     */
+    private Node splitLeaf(Node node) {
+        Node right = new Node(true);
+        int mid = node.count / 2;
+        right.count = node.count - mid;
+        System.arraycopy(node.keys, mid, right.keys, 0, right.count);
+        Arrays.fill(node.keys, mid, node.count, null);
+        node.count = mid;
+        right.next = node.next;
+        node.next = right;
+        promoted = right.keys[0];
+        return right;
+    }
+
+    /**
+     * Moves the upper half of an overfull internal node into a new node,
+     * and promotes the middle key.
+     * @param node the internal node.
+     * @return the new node.
+     */
+    private Node splitInternal(Node node) {
+        Node right = new Node(false);
+        int mid = node.count / 2;
+        promoted = node.keys[mid];
+        right.count = node.count - mid - 1;
+        System.arraycopy(node.keys, mid + 1, right.keys, 0, right.count);
+        System.arraycopy(node.children, mid + 1, right.children, 0, right.count + 1);
+        Arrays.fill(node.keys, mid, node.count, null);
+        Arrays.fill(node.children, mid + 1, node.count + 1, null);
+        node.count = mid;
+        return right;
+    }
+
+    /**
+     * Removes a value from the tree.
+     * @param data the value to remove.
+     * Note: updates nothing when the element is not in the tree.
+     */
+    public void remove(T data) {
+        remove(root, data);
+        if (!root.isLeaf() && root.count == 0) {
+            root = root.children[0];
+            height--;
+        }
+    }
+
+    /**
+     * Helper method to remove.
+     * @param node the root of the subtree.
+     * @param data the value to remove.
+     * @return whether node now holds fewer than minKeys keys.
+     */
+    private boolean remove(Node node, T data) {
+        if (node.isLeaf()) {
+            int i = lowerBound(node, data);
+            if (i == node.count || order.compare(data, node.key(i)) != 0) {
+                return false;
+            }
+            System.arraycopy(node.keys, i + 1, node.keys, i, node.count - i - 1);
+            node.keys[--node.count] = null;
+            size--;
+            modCount++;
+            return node.count < minKeys;
+        }
+        int c = childIndex(node, data);
+        if (remove(node.children[c], data)) {
+            fixUnderflow(node, c);
+        }
+        return node.count < minKeys;
+    }
+
+    /**
+     * Refills a child that fell below minKeys by borrowing from a sibling
+     * that can spare a key, or else merging it with a sibling.
+     * @param parent the parent of the child.
+     * @param c the index of the child.
+     */
+    private void fixUnderflow(Node parent, int c) {
+        if (c > 0 && parent.children[c - 1].count > minKeys) {
+            borrowFromLeft(parent, c);
+        } else if (c < parent.count && parent.children[c + 1].count > minKeys) {
+            borrowFromRight(parent, c);
+        } else if (c > 0) {
+            merge(parent, c - 1);
+        } else if (c < parent.count) {
+            merge(parent, c);
+        }
+    }
+
+    /**
+     * Moves the last key of children[c - 1] into children[c].
+     * @param parent the parent of both children.
+     * @param c the index of the child to refill.
+     */
+    private void borrowFromLeft(Node parent, int c) {
+        Node child = parent.children[c];
+        Node left = parent.children[c - 1];
+        System.arraycopy(child.keys, 0, child.keys, 1, child.count);
+        if (child.isLeaf()) {
+            child.keys[0] = left.keys[left.count - 1];
+            parent.keys[c - 1] = child.keys[0];
+        } else {
+            System.arraycopy(child.children, 0, child.children, 1, child.count + 1);
+            child.keys[0] = parent.keys[c - 1];
+            child.children[0] = left.children[left.count];
+            parent.keys[c - 1] = left.keys[left.count - 1];
+            left.children[left.count] = null;
+        }
+        left.keys[--left.count] = null;
+        child.count++;
+    }
+
+    /**
+     * Moves the first key of children[c + 1] into children[c].
+     * @param parent the parent of both children.
+     * @param c the index of the child to refill.
+     */
+    private void borrowFromRight(Node parent, int c) {
+        Node child = parent.children[c];
+        Node right = parent.children[c + 1];
+        if (child.isLeaf()) {
+            child.keys[child.count] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            parent.keys[c] = right.keys[0];
+        } else {
+            child.keys[child.count] = parent.keys[c];
+            child.children[child.count + 1] = right.children[0];
+            parent.keys[c] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.count - 1);
+            System.arraycopy(right.children, 1, right.children, 0, right.count);
+            right.children[right.count] = null;
+        }
+        right.keys[--right.count] = null;
+        child.count++;
+    }
+
+    /**
+     * Merges children[c + 1] into children[c] and drops it from the parent.
+     * @param parent the parent of both children.
+     * @param c the index of the left child.
+     */
+    private void merge(Node parent, int c) {
+        Node left = parent.children[c];
+        Node right = parent.children[c + 1];
+        if (left.isLeaf()) {
+            System.arraycopy(right.keys, 0, left.keys, left.count, right.count);
+            left.count += right.count;
+            left.next = right.next;
+        } else {
+            left.keys[left.count] = parent.keys[c];
+            System.arraycopy(right.keys, 0, left.keys, left.count + 1, right.count);
+            System.arraycopy(right.children, 0, left.children, left.count + 1, right.count + 1);
+            left.count += right.count + 1;
+        }
+        System.arraycopy(parent.keys, c + 1, parent.keys, c, parent.count - c - 1);
+        System.arraycopy(parent.children, c + 2, parent.children, c + 1, parent.count - c - 1);
+        parent.count--;
+        parent.keys[parent.count] = null;
+        parent.children[parent.count + 1] = null;
+    }
+
+    /**
+     * Resets the tree to the empty state.
+     */
+    public void clear() {
+        root = new Node(true);
+        first = root;
+        size = 0;
+        height = 0;
+        modCount++;
+    }
+
+    /***ADDITONAL OPERATIONS***/
+
+    /**
+     * Returns a String containing the data in order, each value followed
+     * by a new line, scanning the leaves left to right.
+     * @return a String of data in order
+     */
+    public String inOrderString() {
+        StringBuilder inOrder = new StringBuilder();
+        for (Node leaf = first; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.count; i++) {
+                inOrder.append(leaf.keys[i]).append("\n");
+            }
+        }
+        return inOrder.toString();
+    }
+}
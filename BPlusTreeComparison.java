@@ -0,0 +1,112 @@
+/**
+ * BPlusTreeComparison.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Compares the balanced BST with the BPlusTree on Integer keys: lookups
+ * per second for random successful searches, and values per second for a
+ * full in-order scan.
+ *
+ * The BST is bulk-built with BST.build and the BPlusTree is filled by
+ * inserting the keys in random order. Each size runs a few warm-up
+ * rounds before the one that is reported, so the JIT has compiled the
+ * loops being timed.
+ *
+ * Usage: java BPlusTreeComparison [keys ...]
+ * With no arguments, runs 1,000,000 and 10,000,000 keys; the larger size
+ * needs about 1.5 GB of heap.
+ */
+public class BPlusTreeComparison {
+    private static final int LOOKUPS = 2000000;
+    private static final int ROUNDS = 3;
+
+    public static void main(String[] args) {
+        int[] sizes = {1000000, 10000000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        for (int size : sizes) {
+            compare(size);
+        }
+    }
+
+    /**
+     * Builds both trees over the same keys, then times lookups and scans.
+     * @param size the number of keys
+     */
+    private static void compare(int size) {
+        Comparator<Integer> order = Comparator.naturalOrder();
+        Integer[] keys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = i * 2;
+        }
+        BST<Integer> bst = BST.build(keys, order, true);
+        BPlusTree<Integer> bPlus = new BPlusTree<>(order);
+        Integer[] shuffled = keys.clone();
+        Collections.shuffle(Arrays.asList(shuffled), new Random(3));
+        for (Integer key : shuffled) {
+            bPlus.insert(key);
+        }
+        shuffled = null;
+        Integer[] probes = new Integer[LOOKUPS];
+        Random random = new Random(5);
+        for (int i = 0; i < LOOKUPS; i++) {
+            probes[i] = keys[random.nextInt(size)];
+        }
+
+        long check = 0; // consumed below so the timed loops cannot be skipped
+        double bstLookups = 0;
+        double bPlusLookups = 0;
+        double bstScan = 0;
+        double bPlusScan = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (Integer key : probes) {
+                check += bst.search(key);
+            }
+            bstLookups = perSecond(LOOKUPS, start);
+
+            start = System.nanoTime();
+            for (Integer key : probes) {
+                check += bPlus.search(key);
+            }
+            bPlusLookups = perSecond(LOOKUPS, start);
+
+            start = System.nanoTime();
+            Iterator<Integer> it = bst.range(null, null);
+            while (it.hasNext()) {
+                check += it.next();
+            }
+            bstScan = perSecond(size, start);
+
+            start = System.nanoTime();
+            for (Integer key : bPlus) {
+                check += key;
+            }
+            bPlusScan = perSecond(size, start);
+        }
+        System.out.printf("%,d keys: lookup BST %.2f M/s, B+ %.2f M/s; "
+                + "scan BST %.0f M/s, B+ %.0f M/s (check %d)%n",
+                size, bstLookups, bPlusLookups, bstScan, bPlusScan, check % 7);
+    }
+
+    /**
+     * Converts a count of operations into millions per second.
+     * @param count the operations performed
+     * @param start the System.nanoTime when they began
+     * @return the rate, in millions per second
+     */
+    private static double perSecond(int count, long start) {
+        return count * 1e3 / (System.nanoTime() - start);
+    }
+}
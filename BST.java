@@ -3,39 +3,193 @@
  * @author Minh Long Hang
  * CIS 22C Lab 9
  */
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntBiFunction;
 
 public class BST<T> {
     private class Node {
         private T data;
         private Node left;
         private Node right;
+        private int height; // edges on the longest path down to a leaf
+        private int size; // nodes in the subtree rooted here
 
         public Node(T data) {
             this.data = data;
             left = null;
             right = null;
+            height = 0;
+            size = 1;
         }
     }
 
+    /**
+     * Visits the values between two bounds in order. Only the nodes on the
+     * way to the lower bound and the values handed out are ever touched:
+     * the stack holds the nodes still to visit along the leftmost path of
+     * what remains.
+     */
+    private class RangeIterator implements Iterator<T> {
+        private final ArrayList<Node> stack = new ArrayList<Node>();
+        private final T hi;
+        private final boolean hiInclusive;
+        private final Comparator<T> cmp;
+        private final int expectedModCount;
+
+        public RangeIterator(T lo, boolean loInclusive, T hi, boolean hiInclusive) {
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.cmp = lo == null && hi == null ? order : order();
+            this.expectedModCount = modCount;
+            Node node = root;
+            while (node != null) {
+                int comparison = lo == null ? 1 : cmp.compare(node.data, lo);
+                if (comparison < 0 || (comparison == 0 && !loInclusive)) {
+                    node = node.right;
+                } else {
+                    stack.add(node);
+                    node = node.left;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (stack.isEmpty()) {
+                return false;
+            }
+            if (hi == null) {
+                return true;
+            }
+            int comparison = cmp.compare(stack.get(stack.size() - 1).data, hi);
+            return comparison < 0 || (comparison == 0 && hiInclusive);
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more values in range.");
+            }
+            Node node = stack.remove(stack.size() - 1);
+            for (Node next = node.right; next != null; next = next.left) {
+                stack.add(next);
+            }
+            return node.data;
+        }
+    }
+
+    /**
+     * Folds a subtree in order. Subtrees larger than the threshold fork
+     * their right half and fold the left half in this thread, then join
+     * the two through the combiner; smaller ones are folded directly.
+     */
+    private class ReduceTask<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+        private final Node node;
+        private final R identity;
+        private final BiFunction<R, ? super T, R> accumulator;
+        private final BinaryOperator<R> combiner;
+        private final int expectedModCount;
+
+        public ReduceTask(Node node, R identity, BiFunction<R, ? super T, R> accumulator,
+                BinaryOperator<R> combiner, int expectedModCount) {
+            this.node = node;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        protected R compute() {
+            if (size(node) <= PARALLEL_REDUCE_THRESHOLD) {
+                return fold(node, identity, accumulator, expectedModCount);
+            }
+            ReduceTask<R> right = new ReduceTask<R>(node.right, identity, accumulator, combiner,
+                    expectedModCount);
+            right.fork();
+            R left = new ReduceTask<R>(node.left, identity, accumulator, combiner,
+                    expectedModCount).compute();
+            return combiner.apply(accumulator.apply(left, node.data), right.join());
+        }
+    }
+
+    /** Inputs at least this long are sorted in parallel by build */
+    private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+    /** Subtrees larger than this are split between threads by reduce */
+    private static final int PARALLEL_REDUCE_THRESHOLD = 1 << 13;
+
     private Node root;
+    private int modCount; // number of inserts and removes, for the iterators
+    private final boolean balanced;
+    private final Comparator<T> order; // null unless given at construction
+    private final ArrayList<Node> path = new ArrayList<Node>(); // reused by insert and remove
 
     /***CONSTRUCTORS***/
 
     /**
      * Default constructor for BST sets root to null.
+     * The tree is not rebalanced.
      */
     public BST() {
+        this(false);
+    }
+
+    /**
+     * Constructor for an empty BST.
+     * @param balanced whether insert and remove keep the tree balanced
+     * (as an AVL tree), so its height stays O(log n) whatever the
+     * order of insertion.
+     */
+    public BST(boolean balanced) {
+        this(null, balanced);
+    }
+
+    /**
+     * Constructor for an empty BST ordered by the given Comparator,
+     * which the methods without a Comparator parameter use.
+     * @param order the way the tree is organized.
+     */
+    public BST(Comparator<T> order) {
+        this(order, false);
+    }
+
+    /**
+     * Constructor for an empty BST ordered by the given Comparator,
+     * which the methods without a Comparator parameter use.
+     * @param order the way the tree is organized.
+     * @param balanced whether insert and remove keep the tree balanced.
+     */
+    public BST(Comparator<T> order, boolean balanced) {
         root = null;
+        this.order = order;
+        this.balanced = balanced;
     }
 
     /**
-     * Copy constructor for BST.
+     * Copy constructor for BST. The copy is balanced if bst is, and is
+     * ordered by cmp.
      * @param bst the BST of which to make a copy.
      * @param cmp the way the tree is organized.
      */
     public BST(BST<T> bst, Comparator<T> cmp) {
+        this.balanced = bst != null && bst.balanced;
+        this.order = cmp;
         if (bst != null) {
             this.root = null;
             copyHelper(bst.root, cmp);
@@ -48,13 +202,66 @@ public class BST<T> {
      * @param cmp the way the tree is organized.
      */
     private void copyHelper(Node node, Comparator<T> cmp) {
+        ArrayList<Node> stack = new ArrayList<Node>();
         if (node != null) {
-            insert(node.data, cmp);
-            copyHelper(node.left, cmp);
-            copyHelper(node.right, cmp);
+            stack.add(node);
+        }
+        while (!stack.isEmpty()) {
+            Node current = stack.remove(stack.size() - 1);
+            insert(current.data, cmp);
+            if (current.right != null) {
+                stack.add(current.right);
+            }
+            if (current.left != null) {
+                stack.add(current.left);
+            }
         }
     }
 
+    /**
+     * Copy constructor for BST that copies the nodes directly in O(n),
+     * so the copy has the same shape, mode and Comparator as bst.
+     * @param bst the BST of which to make a copy.
+     */
+    public BST(BST<T> bst) {
+        this.balanced = bst != null && bst.balanced;
+        this.order = bst == null ? null : bst.order;
+        if (bst == null || bst.root == null) {
+            return;
+        }
+        root = copyOf(bst.root);
+        ArrayList<Node> from = new ArrayList<Node>();
+        ArrayList<Node> to = new ArrayList<Node>();
+        from.add(bst.root);
+        to.add(root);
+        while (!from.isEmpty()) {
+            Node source = from.remove(from.size() - 1);
+            Node copy = to.remove(to.size() - 1);
+            if (source.left != null) {
+                copy.left = copyOf(source.left);
+                from.add(source.left);
+                to.add(copy.left);
+            }
+            if (source.right != null) {
+                copy.right = copyOf(source.right);
+                from.add(source.right);
+                to.add(copy.right);
+            }
+        }
+    }
+
+    /**
+     * Copies a single node, without its children.
+     * @param node the node to copy.
+     * @return the new node.
+     */
+    private Node copyOf(Node node) {
+        Node copy = new Node(node.data);
+        copy.height = node.height;
+        copy.size = node.size;
+        return copy;
+    }
+
     /**
     * Creates a BST of minimal height from an array of values.
     * @param array the list of values to insert.
@@ -63,6 +270,20 @@ public class BST<T> {
     * @throws IllegalArgumentException when the array is unsorted.
     */
     public BST(T[] array, Comparator<T> cmp) throws IllegalArgumentException {
+        this(array, cmp, false);
+    }
+
+    /**
+    * Creates a BST of minimal height from an array of values.
+    * @param array the list of values to insert.
+    * @param cmp the way the tree is organized.
+    * @param balanced whether insert and remove keep the tree balanced.
+    * @precondition array must be sorted in ascending order.
+    * @throws IllegalArgumentException when the array is unsorted.
+    */
+    public BST(T[] array, Comparator<T> cmp, boolean balanced) throws IllegalArgumentException {
+        this.balanced = balanced;
+        this.order = cmp;
         if (array == null || array.length == 0) {
             root = null;
             return;
@@ -104,9 +325,56 @@ public class BST<T> {
         Node node = new Node(array[mid]);
         node.left = arrayHelper(begin, mid - 1, array);
         node.right = arrayHelper(mid + 1, end, array);
+        update(node);
         return node;
     }
 
+    /**
+     * Builds a BST of minimal height from values in any order. The values
+     * are sorted (in parallel for large inputs) without changing the
+     * array; of values that compare as equal only the first is kept,
+     * as if they had been inserted one at a time.
+     * @param array the values to insert.
+     * @param cmp the way the tree is organized.
+     * @param balanced whether insert and remove keep the tree balanced.
+     * @return the new BST, ordered by cmp.
+     */
+    public static <T> BST<T> build(T[] array, Comparator<T> cmp, boolean balanced) {
+        BST<T> bst = new BST<T>(cmp, balanced);
+        if (array == null || array.length == 0) {
+            return bst;
+        }
+        T[] sorted = Arrays.copyOf(array, array.length);
+        if (sorted.length >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(sorted, cmp);
+        } else {
+            Arrays.sort(sorted, cmp);
+        }
+        // both sorts are stable, so the first of a run of equal values
+        // is the one that came first in array
+        int count = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (cmp.compare(sorted[count - 1], sorted[i]) != 0) {
+                sorted[count++] = sorted[i];
+            }
+        }
+        bst.root = bst.arrayHelper(0, count - 1, sorted);
+        return bst;
+    }
+
+    /**
+     * Builds a BST of minimal height from a Collection of values in any
+     * order, as build does for an array.
+     * @param values the values to insert.
+     * @param cmp the way the tree is organized.
+     * @param balanced whether insert and remove keep the tree balanced.
+     * @return the new BST, ordered by cmp.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BST<T> build(Collection<? extends T> values, Comparator<T> cmp, boolean balanced) {
+        return build(values == null ? null : (T[]) values.toArray(), cmp, balanced);
+    }
+
     /***ACCESSORS***/
 
     /**
@@ -130,22 +398,42 @@ public class BST<T> {
         return root == null;
     }
 
+    /**
+     * Determines whether insert and remove keep the tree balanced.
+     * @return whether the tree is self-balancing.
+     */
+    public boolean isBalanced() {
+        return balanced;
+    }
+
+    /**
+     * Returns the Comparator given at construction.
+     * @precondition a Comparator was given at construction
+     * @return the Comparator ordering the tree.
+     * @throws IllegalStateException when the precondition is violated.
+     */
+    private Comparator<T> order() throws IllegalStateException {
+        if (order == null) {
+            throw new IllegalStateException("No comparator was given at construction.");
+        }
+        return order;
+    }
+
     /**
      * Returns the current size of the tree (number of nodes).
      * @return the size of the tree.
      */
     public int getSize() {
-        return getSize(root);
+        return size(root);
     }
 
     /**
-     * Helper method for the getSize method.
-     * @param node the current node to count.
-     * @return the size of the tree.
+     * Returns the size stored in a node.
+     * @param node the node, possibly null.
+     * @return the number of nodes in the subtree, 0 when it is empty.
      */
-    private int getSize(Node node) {
-        if (node == null) return 0;
-        return 1 + getSize(node.left) + getSize(node.right);
+    private int size(Node node) {
+        return node == null ? 0 : node.size;
     }
 
     /**
@@ -153,19 +441,16 @@ public class BST<T> {
      * @return the height of the tree.
      */
     public int getHeight() {
-        return getHeight(root);
+        return height(root);
     }
 
     /**
-     * Helper method for getHeight method.
-     * @param node the current node whose height to count.
-     * @return the height of the tree.
+     * Returns the height stored in a node.
+     * @param node the node, possibly null.
+     * @return the height of the subtree, -1 when it is empty.
      */
-    private int getHeight(Node node) {
-        if (node == null) {
-            return -1;
-        }
-        return 1 + Math.max(getHeight(node.left), getHeight(node.right));
+    private int height(Node node) {
+        return node == null ? -1 : node.height;
     }
 
     /**
@@ -182,12 +467,15 @@ public class BST<T> {
     }
 
     /**
-     * Recursive helper method to findMin method.
-     * @param node the current node to check if it is the smallest.
-     * @return the smallest value in the tree.
+     * Helper method to findMin method.
+     * @param node the root of the subtree to search.
+     * @return the smallest value in the subtree.
      */
     private T findMin(Node node) {
-        return (node.left == null) ? node.data : findMin(node.left);
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.data;
     }
 
     /**
@@ -204,12 +492,15 @@ public class BST<T> {
     }
 
     /**
-     * Recursive helper method to findMax method.
-     * @param node the current node to check if it is the largest.
-     * @return the largest value in the tree.
+     * Helper method to findMax method.
+     * @param node the root of the subtree to search.
+     * @return the largest value in the subtree.
      */
     private T findMax(Node node) {
-        return (node.right == null) ? node.data : findMax(node.right);
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.data;
     }
 
     /**
@@ -220,32 +511,249 @@ public class BST<T> {
      * @return the data stored in that Node of the tree, otherwise null.
      */
     public T search(T data, Comparator<T> cmp) {
-        if (root == null) {
-            return null;
+        Node node = root;
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison == 0) {
+                return node.data;
+            }
+            node = comparison < 0 ? node.left : node.right;
         }
-        return search(data, root, cmp); 
+        return null;
     }
 
     /**
-     * Helper method for the search method.
-     * @param data the data to search for.
-     * @param node the current node to check.
-     * @param cmp the Comparator that determines how the BST is organized.
+     * Searches for a specified value in the tree, using the
+     * Comparator given at construction.
+     * @param data the value to search for.
      * @return the data stored in that Node of the tree, otherwise null.
+     * @throws IllegalStateException when no Comparator was given
+     * at construction.
      */
-    private T search(T data, Node node, Comparator<T> cmp) {
-        if (node == null) {
-            return null;
+    public T search(T data) throws IllegalStateException {
+        return search(data, order());
+    }
+
+    /**
+     * Returns the largest value less than or equal to the given value,
+     * using the Comparator given at construction.
+     * @param data the value to compare with, which need not be in the tree.
+     * @return the value, or null if there is none.
+     * @throws IllegalStateException when no Comparator was given
+     * at construction.
+     */
+    public T floor(T data) throws IllegalStateException {
+        return nearest(data, true, true);
+    }
+
+    /**
+     * Returns the smallest value greater than or equal to the given value,
+     * using the Comparator given at construction.
+     * @param data the value to compare with, which need not be in the tree.
+     * @return the value, or null if there is none.
+     * @throws IllegalStateException when no Comparator was given
+     * at construction.
+     */
+    public T ceiling(T data) throws IllegalStateException {
+        return nearest(data, false, true);
+    }
+
+    /**
+     * Returns the smallest value strictly greater than the given value,
+     * using the Comparator given at construction.
+     * @param data the value to compare with, which need not be in the tree.
+     * @return the value, or null if there is none.
+     * @throws IllegalStateException when no Comparator was given
+     * at construction.
+     */
+    public T higher(T data) throws IllegalStateException {
+        return nearest(data, false, false);
+    }
+
+    /**
+     * Returns the largest value strictly less than the given value,
+     * using the Comparator given at construction.
+     * @param data the value to compare with, which need not be in the tree.
+     * @return the value, or null if there is none.
+     * @throws IllegalStateException when no Comparator was given
+     * at construction.
+     */
+    public T lower(T data) throws IllegalStateException {
+        return nearest(data, true, false);
+    }
+
+    /**
+     * Helper method for floor, ceiling, higher and lower. Walks down
+     * towards data, remembering the last value passed on the wanted side.
+     * @param data the value to compare with.
+     * @param below whether the value wanted is below data.
+     * @param inclusive whether a value equal to data may be returned.
+     * @return the nearest value on the wanted side, or null if there is none.
+     */
+    private T nearest(T data, boolean below, boolean inclusive) {
+        Comparator<T> cmp = order();
+        T best = null;
+        Node node = root;
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison == 0 && inclusive) {
+                return node.data;
+            }
+            if (below ? comparison > 0 : comparison < 0) {
+                best = node.data;
+                node = below ? node.right : node.left;
+            } else {
+                node = below ? node.left : node.right;
+            }
         }
-        
-        int comparison = cmp.compare(data, node.data);
-        if (comparison == 0) {
-            return node.data;
-        } else if (comparison < 0) {
-            return search(data, node.left, cmp);
-        } else {
-            return search(data, node.right, cmp);
+        return best;
+    }
+
+    /**
+     * Returns an Iterator over the values from lo to hi, both included,
+     * in order. Values are found as the Iterator advances, descending only
+     * into the subtrees that hold them. Inserting or removing while
+     * iterating makes next throw a ConcurrentModificationException.
+     * @param lo the smallest value wanted, or null for no lower bound.
+     * @param hi the largest value wanted, or null for no upper bound.
+     * @return an Iterator over the values in range.
+     * @throws IllegalStateException when a bound is given but no
+     * Comparator was given at construction.
+     */
+    public Iterator<T> range(T lo, T hi) throws IllegalStateException {
+        return new RangeIterator(lo, true, hi, true);
+    }
+
+    /**
+     * Returns an Iterator over the values strictly less than hi, in order,
+     * like TreeSet.headSet.
+     * @param hi the bound, which is not included.
+     * @return an Iterator over the smaller values.
+     * @throws IllegalStateException when no Comparator was given
+     * at construction.
+     */
+    public Iterator<T> headIterator(T hi) throws IllegalStateException {
+        return new RangeIterator(null, true, hi, false);
+    }
+
+    /**
+     * Returns an Iterator over the values greater than or equal to lo, in
+     * order, like TreeSet.tailSet.
+     * @param lo the bound, which is included.
+     * @return an Iterator over the larger values.
+     * @throws IllegalStateException when no Comparator was given
+     * at construction.
+     */
+    public Iterator<T> tailIterator(T lo) throws IllegalStateException {
+        return new RangeIterator(lo, true, null, false);
+    }
+
+    /**
+     * Searches for the value matching a key, so a lookup needs no dummy
+     * value to compare with. Pass a static or non-capturing lambda and
+     * the search allocates nothing.
+     * @param key the key to search for.
+     * @param keyOrder compares the key to a value in the tree, agreeing
+     * with the order of the tree.
+     * @return the data stored in that Node of the tree, otherwise null.
+     */
+    public <K> T searchByKey(K key, ToIntBiFunction<? super K, ? super T> keyOrder) {
+        Node node = root;
+        while (node != null) {
+            int comparison = keyOrder.applyAsInt(key, node.data);
+            if (comparison == 0) {
+                return node.data;
+            }
+            node = comparison < 0 ? node.left : node.right;
         }
+        return null;
+    }
+
+    /**
+     * Returns the value at a position of the in order traversal.
+     * @param k the position, counting from 0 for the smallest value.
+     * @precondition 0 <= k < getSize()
+     * @return the k-th smallest value in the tree.
+     * @throws IndexOutOfBoundsException when the precondition is violated.
+     */
+    public T select(int k) throws IndexOutOfBoundsException {
+        if (k < 0 || k >= getSize()) {
+            throw new IndexOutOfBoundsException("Invalid position " + k);
+        }
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (k < leftSize) {
+                node = node.left;
+            } else if (k > leftSize) {
+                k -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node.data;
+            }
+        }
+    }
+
+    /**
+     * Counts the values in the tree that are smaller than the given value,
+     * which is the position of data in the in order traversal if it
+     * is in the tree.
+     * @param data the value to rank, which need not be in the tree.
+     * @param cmp the Comparator indicating how data in the tree is ordered.
+     * @return the number of smaller values.
+     */
+    public int rank(T data, Comparator<T> cmp) {
+        int rank = 0;
+        Node node = root;
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Counts the values in the tree that are smaller than the given
+     * value, using the Comparator given at construction.
+     * @param data the value to rank, which need not be in the tree.
+     * @return the number of smaller values.
+     * @throws IllegalStateException when no Comparator was given
+     * at construction.
+     */
+    public int rank(T data) throws IllegalStateException {
+        return rank(data, order());
+    }
+
+    /**
+     * Returns the k largest values, largest first, visiting only the
+     * nodes on the way to them.
+     * @param k the number of values wanted.
+     * @precondition k >= 0
+     * @return the largest min(k, getSize()) values in decreasing order.
+     * @throws IllegalArgumentException when the precondition is violated.
+     */
+    public ArrayList<T> topK(int k) throws IllegalArgumentException {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative");
+        }
+        ArrayList<T> top = new ArrayList<T>(Math.min(k, getSize()));
+        ArrayList<Node> stack = new ArrayList<Node>();
+        Node node = root;
+        while (top.size() < k && (node != null || !stack.isEmpty())) {
+            while (node != null) {
+                stack.add(node);
+                node = node.right;
+            }
+            node = stack.remove(stack.size() - 1);
+            top.add(node.data);
+            node = node.left;
+        }
+        return top;
     }
 
     /***MUTATORS***/
@@ -256,40 +764,38 @@ public class BST<T> {
     * @param cmp the Comparator indicating how data in the tree is ordered.
     */
     public void insert(T data, Comparator<T> cmp) {
-        insert(data, root, cmp);
+        path.clear(); // in case a comparator threw during the last call
+        Node node = root;
+        int comparison = 0;
+        while (node != null) {
+            comparison = cmp.compare(data, node.data);
+            if (comparison == 0) {
+                path.clear();
+                return; // duplicates are not inserted
+            }
+            path.add(node);
+            node = comparison < 0 ? node.left : node.right;
+        }
+        if (path.isEmpty()) {
+            root = new Node(data);
+        } else if (comparison < 0) {
+            path.get(path.size() - 1).left = new Node(data);
+        } else {
+            path.get(path.size() - 1).right = new Node(data);
+        }
+        modCount++;
+        retrace();
     }
 
     /**
-     * Helper method to insert.
-     * Inserts a new value in the tree.
-     * @param data the data to insert.
-     * @param node the current node in the search for the correct insert
-     *     location.
-     * @param cmp the Comparator indicating how data in the tree is ordered.
-     */
-    private void insert(T data, Node node, Comparator<T> cmp) {
-        if (node == null) {
-            // Here we need to handle the case when the root is null
-            // but since we can't modify the root directly, we need to ensure
-            // that the insert method is called correctly.
-            root = new Node(data); // Create a new root if the tree is empty
-            return; // Exit the method
-        }
-    
-        int comparison = cmp.compare(data, node.data);
-        if (comparison < 0) {
-            if (node.left == null) {
-                node.left = new Node(data); // Insert new node
-            } else {
-                insert(data, node.left, cmp); // Recur on the left child
-            }
-        } else if (comparison > 0) {
-            if (node.right == null) {
-                node.right = new Node(data); // Insert new node
-            } else {
-                insert(data, node.right, cmp); // Recur on the right child
-            }
-        }
+    * Inserts a new node in the tree, using the Comparator given
+    * at construction.
+    * @param data the data to insert.
+    * @throws IllegalStateException when no Comparator was given
+    * at construction.
+    */
+    public void insert(T data) throws IllegalStateException {
+        insert(data, order());
     }
 
     /**
@@ -299,38 +805,249 @@ public class BST<T> {
      * Note: updates nothing when the element is not in the tree.
      */
     public void remove(T data, Comparator<T> cmp) {
-        root = remove(data, root, cmp);
+        path.clear(); // in case a comparator threw during the last call
+        Node node = root;
+        while (node != null) {
+            int comparison = cmp.compare(data, node.data);
+            if (comparison == 0) {
+                break;
+            }
+            path.add(node);
+            node = comparison < 0 ? node.left : node.right;
+        }
+        if (node == null) {
+            path.clear();
+            return;
+        }
+        Node parent = path.isEmpty() ? null : path.get(path.size() - 1);
+        if (node.left == null) {
+            replaceChild(parent, node, node.right);
+        } else if (node.right == null) {
+            replaceChild(parent, node, node.left);
+        } else {
+            // Node with two children: move up the smallest value
+            // of the right subtree and unlink its node instead
+            path.add(node);
+            Node successor = node.right;
+            while (successor.left != null) {
+                path.add(successor);
+                successor = successor.left;
+            }
+            node.data = successor.data;
+            replaceChild(path.get(path.size() - 1), successor, successor.right);
+        }
+        modCount++;
+        retrace();
     }
 
     /**
-     * Helper method to the remove method.
-     * @param data the data to remove.
-     * @param node the current node.
-     * @param cmp the Comparator indicating how data in the tree is organized.
-     * @return an updated reference variable.
+     * Removes a value from the BST, using the Comparator given
+     * at construction.
+     * @param data the value to remove
+     * @throws IllegalStateException when no Comparator was given
+     * at construction.
+     * Note: updates nothing when the element is not in the tree.
      */
-    private Node remove(T data, Node node, Comparator<T> cmp) {
-        if (node == null) return null;
+    public void remove(T data) throws IllegalStateException {
+        remove(data, order());
+    }
 
-        int comparison = cmp.compare(data, node.data);
-        if (comparison < 0) {
-            node.left = remove(data, node.left, cmp);
-        } else if (comparison > 0) {
-            node.right = remove(data, node.right, cmp);
+    /**
+     * Puts a new subtree where a child of parent was.
+     * @param parent the parent, or null if child is the root.
+     * @param child the current child.
+     * @param replacement the subtree taking its place.
+     */
+    private void replaceChild(Node parent, Node child, Node replacement) {
+        if (parent == null) {
+            root = replacement;
+        } else if (parent.left == child) {
+            parent.left = replacement;
         } else {
-            // Node to be deleted found
-            if (node.left == null) return node.right;
-            if (node.right == null) return node.left;
+            parent.right = replacement;
+        }
+    }
 
-            // Node with two children
-            node.data = findMin(node.right); // Get the smallest value from the right subtree
-            node.right = remove(node.data, node.right, cmp); // Remove the smallest value
+    /**
+     * Rebalances the nodes on the path of an insert or remove, from the
+     * bottom up, linking each rebalanced subtree back into its parent,
+     * then empties the path.
+     */
+    private void retrace() {
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node node = path.get(i);
+            replaceChild(i == 0 ? null : path.get(i - 1), node, rebalance(node));
+        }
+        path.clear();
+    }
+
+    /**
+     * Recomputes the height of a node whose children are up to date and,
+     * in a balanced tree, rotates it when one side has grown two taller.
+     * @param node the node on the path of an insert or remove.
+     * @return the root of the rebalanced subtree.
+     */
+    private Node rebalance(Node node) {
+        update(node);
+        if (!balanced) {
+            return node;
+        }
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
         }
         return node;
     }
 
+    /**
+     * Rotates a subtree to the right, lifting its left child.
+     * @param node the root of the subtree.
+     * @return the new root of the subtree.
+     */
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Rotates a subtree to the left, lifting its right child.
+     * @param node the root of the subtree.
+     * @return the new root of the subtree.
+     */
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    /**
+     * Recomputes the height and size of a node from its children.
+     * @param node the node.
+     */
+    private void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
     /***ADDITONAL OPERATIONS***/
 
+    /**
+     * Folds every value into a result, like Stream.reduce. Large trees are
+     * split between the left and right subtrees of each node and folded in
+     * parallel on the common ForkJoinPool; small ones are folded in this
+     * thread. The accumulator folds values in order within each part and
+     * the combiner joins the parts in order, so both must be associative,
+     * identity must be an identity for the combiner, and neither may change
+     * the tree.
+     * @param identity the result for an empty part.
+     * @param accumulator folds one more value into a partial result.
+     * @param combiner joins the results of two adjacent parts.
+     * @return the folded result, identity when the tree is empty.
+     * @precondition accumulator != null, combiner != null
+     * @throws NullPointerException when the precondition is violated.
+     * @throws ConcurrentModificationException when the tree was changed
+     * while it was being folded.
+     */
+    public <R> R reduce(R identity, BiFunction<R, ? super T, R> accumulator,
+            BinaryOperator<R> combiner) throws NullPointerException, ConcurrentModificationException {
+        if (accumulator == null || combiner == null) {
+            throw new NullPointerException("Functions cannot be null");
+        }
+        int expectedModCount = modCount;
+        R result = size(root) <= PARALLEL_REDUCE_THRESHOLD
+                ? fold(root, identity, accumulator, expectedModCount)
+                : ForkJoinPool.commonPool().invoke(
+                        new ReduceTask<R>(root, identity, accumulator, combiner, expectedModCount));
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+        return result;
+    }
+
+    /**
+     * Helper method to reduce.
+     * Folds a subtree in order in this thread, using an explicit stack.
+     * @param node the root of the subtree.
+     * @param result the result so far.
+     * @param accumulator folds one more value into the result.
+     * @param expectedModCount the modCount when the fold began.
+     * @return the folded result.
+     * @throws ConcurrentModificationException when the accumulator
+     * changed the tree.
+     */
+    private <R> R fold(Node node, R result, BiFunction<R, ? super T, R> accumulator,
+            int expectedModCount) throws ConcurrentModificationException {
+        ArrayList<Node> stack = new ArrayList<Node>();
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.add(node);
+                node = node.left;
+            }
+            node = stack.remove(stack.size() - 1);
+            result = accumulator.apply(result, node.data);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            node = node.right;
+        }
+        return result;
+    }
+
+    /**
+     * Performs an action on every value, splitting large trees between
+     * threads as reduce does. Values are not visited in order, and the
+     * action may run on several threads at once.
+     * @param action the action, which must not change the tree.
+     * @precondition action != null
+     * @throws NullPointerException when the precondition is violated.
+     * @throws ConcurrentModificationException when the tree was changed
+     * while it was being visited.
+     */
+    public void forEach(Consumer<? super T> action)
+            throws NullPointerException, ConcurrentModificationException {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        reduce(null, (ignored, data) -> {
+            action.accept(data);
+            return null;
+        }, (left, right) -> null);
+    }
+
+    /**
+     * Counts the values that match a predicate, splitting large trees
+     * between threads as reduce does.
+     * @param predicate the test, which must not change the tree.
+     * @return the number of matching values.
+     * @precondition predicate != null
+     * @throws NullPointerException when the precondition is violated.
+     * @throws ConcurrentModificationException when the tree was changed
+     * while it was being counted.
+     */
+    public int count(Predicate<? super T> predicate)
+            throws NullPointerException, ConcurrentModificationException {
+        if (predicate == null) {
+            throw new NullPointerException("Predicate cannot be null");
+        }
+        return reduce(0, (count, data) -> predicate.test(data) ? count + 1 : count, Integer::sum);
+    }
+
     /**
      * Returns a String containing the data in pre order
      * followed by a new line.
@@ -344,15 +1061,24 @@ public class BST<T> {
 
     /**
      * Helper method to preOrderString method.
-     * Prints the data in pre order to the console followed by a new line.
-     * @param node the current Node
+     * Appends the data in pre order, using an explicit stack.
+     * @param node the root of the subtree
      * @param preOrder a StringBuilder containing the data
      */
     private void preOrderString(Node node, StringBuilder preOrder) {
+        ArrayList<Node> stack = new ArrayList<Node>();
         if (node != null) {
-            preOrder.append(node.data + " ");
-            preOrderString(node.left, preOrder);
-            preOrderString(node.right, preOrder);
+            stack.add(node);
+        }
+        while (!stack.isEmpty()) {
+            Node current = stack.remove(stack.size() - 1);
+            preOrder.append(current.data).append(" ");
+            if (current.right != null) {
+                stack.add(current.right);
+            }
+            if (current.left != null) {
+                stack.add(current.left);
+            }
         }
     }
 
@@ -368,15 +1094,20 @@ public class BST<T> {
 
     /**
      * Helper method to inOrderString.
-     * Inserts the data in order into a String in order.
-     * @param node the current Node
-     * @param inOrder a String containing the data
+     * Appends the data in order, using an explicit stack.
+     * @param node the root of the subtree
+     * @param inOrder a StringBuilder containing the data
      */
     private void inOrderString(Node node, StringBuilder inOrder) {
-        if (node != null) {
-            inOrderString(node.left, inOrder);
-            inOrder.append(node.data + "\n"); 
-            inOrderString(node.right, inOrder);
+        ArrayList<Node> stack = new ArrayList<Node>();
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.add(node);
+                node = node.left;
+            }
+            node = stack.remove(stack.size() - 1);
+            inOrder.append(node.data).append("\n");
+            node = node.right;
         }
     }
 
@@ -392,15 +1123,28 @@ public class BST<T> {
 
     /**
      * Helper method to postOrderString
-     * Inserts the data in post order into a String
-     * @param node the current Node
-     * @param postOrder a String containing the data
+     * Appends the data in post order, using an explicit stack. A node is
+     * visited once its right subtree is done, i.e. when it is reached
+     * again from its right child or has none.
+     * @param node the root of the subtree
+     * @param postOrder a StringBuilder containing the data
      */
     private void postOrderString(Node node, StringBuilder postOrder) {
-        if (node != null) {
-            postOrderString(node.left, postOrder);
-            postOrderString(node.right, postOrder);
-            postOrder.append(node.data + " ");
+        ArrayList<Node> stack = new ArrayList<Node>();
+        Node lastVisited = null;
+        while (node != null || !stack.isEmpty()) {
+            while (node != null) {
+                stack.add(node);
+                node = node.left;
+            }
+            Node top = stack.get(stack.size() - 1);
+            if (top.right != null && top.right != lastVisited) {
+                node = top.right;
+            } else {
+                stack.remove(stack.size() - 1);
+                postOrder.append(top.data).append(" ");
+                lastVisited = top;
+            }
         }
     }
 
@@ -416,27 +1160,16 @@ public class BST<T> {
         Queue<Node> que = new Queue<>();
         StringBuilder sb = new StringBuilder();
         que.enqueue(root);
-        levelOrderString(que, sb);
-        return sb.toString() + "\n";
-    }
-
-    /**
-     * Helper method to levelOrderString.
-     * Inserts the data in level order into a String.
-     * @param que the Queue in which to store the data.
-     * @param heightTraverse a StringBuilder containing the data.
-     */
-    private void levelOrderString(Queue<Node> que, StringBuilder heightTraverse) {
-        if (!que.isEmpty()) {
+        while (!que.isEmpty()) {
             Node nd = que.getFront();
             que.dequeue();
             if (nd != null) {
                 que.enqueue(nd.left);
                 que.enqueue(nd.right);
-                heightTraverse.append(nd.data + " ");
+                sb.append(nd.data).append(" ");
             }
-            levelOrderString(que, heightTraverse);
         }
+        return sb.toString() + "\n";
     }
       /**Challenge Methods */
 
@@ -462,8 +1195,26 @@ public class BST<T> {
     }
 
     /**
-     * Private helper method to sharedPrecursor, which recursively locates
-     * the shared precursor.
+     * Returns the data of the Node who is the shared precursor to the two
+     * Nodes containing the given data, using the Comparator given
+     * at construction.
+     * @param data1 the data contained in one Node of the tree.
+     * @param data2 the data contained in one Node of the tree.
+     * @return the data stored by the shared precursor or null if no
+     * precursor exists.
+     * @precondition data1 and data2 must exist in the BST.
+     * @throws IllegalArgumentException when one or both values do not exist
+     * in the BST.
+     * @throws IllegalStateException when no Comparator was given
+     * at construction.
+     */
+    public T sharedPrecursor(T data1, T data2) throws IllegalArgumentException, IllegalStateException {
+        return sharedPrecursor(data1, data2, order());
+    }
+
+    /**
+     * Private helper method to sharedPrecursor, which walks down from
+     * the given Node to the shared precursor.
      * @param data1 the data contained in one Node of the tree.
      * @param data2 the data contained in one Node of the tree.
      * @param currLevel the current Node.
@@ -471,35 +1222,27 @@ public class BST<T> {
      * @return the data stored by the shared precursor.
      */
     private T sharedPrecursor(T data1, T data2, Node currLevel, Comparator<T> cmp) {
-        if (currLevel == null) {
-            return null;
-        }
-        
-        // If current node is one of the target values, it is the precursor
-        if (cmp.compare(currLevel.data, data1) == 0 || cmp.compare(currLevel.data, data2) == 0) {
-            return currLevel.data;
-        }
-        
-        int cmp1 = cmp.compare(data1, currLevel.data);
-        int cmp2 = cmp.compare(data2, currLevel.data);
-        
-        // If the values are on different sides of current node, current node is the precursor
-        if ((cmp1 < 0 && cmp2 > 0) || (cmp1 > 0 && cmp2 < 0)) {
-            return currLevel.data;
-        }
-        
-        // Both values are less than current node, go left
-        if (cmp1 < 0 && cmp2 < 0) {
-            return sharedPrecursor(data1, data2, currLevel.left, cmp);
-        }
-        
-        // Both values are greater than current node, go right
-        if (cmp1 > 0 && cmp2 > 0) {
-            return sharedPrecursor(data1, data2, currLevel.right, cmp);
+        while (currLevel != null) {
+            // If current node is one of the target values, it is the precursor
+            if (cmp.compare(currLevel.data, data1) == 0 || cmp.compare(currLevel.data, data2) == 0) {
+                return currLevel.data;
+            }
+
+            int cmp1 = cmp.compare(data1, currLevel.data);
+            int cmp2 = cmp.compare(data2, currLevel.data);
+
+            if (cmp1 < 0 && cmp2 < 0) {
+                // Both values are less than current node, go left
+                currLevel = currLevel.left;
+            } else if (cmp1 > 0 && cmp2 > 0) {
+                // Both values are greater than current node, go right
+                currLevel = currLevel.right;
+            } else {
+                // The values are on different sides of current node
+                return currLevel.data;
+            }
         }
-        
-        // If we reach here (shouldn't happen based on the above conditions), return current node's data
-        return currLevel.data;
+        return null;
     }
 
 }
@@ -0,0 +1,293 @@
+/**
+ * ConcurrentDeque.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A doubly-linked deque with LinkedList's operation names that many threads
+ * can use at once without locks, after Michael's CAS-based deque.
+ *
+ * Both ends and a status live together in one immutable Anchor, replaced
+ * with a compare-and-set, so a push or pop at either end is a single atomic
+ * step. A push first swings the anchor to the new node and marks it
+ * unstable; the old end node's link to the new one is fixed afterwards by
+ * whichever thread gets there first, so no thread ever waits on another.
+ * While the anchor is unstable, other operations help stabilize it before
+ * trying their own.
+ * @param <T> the generic data stored in the deque
+ */
+public class ConcurrentDeque<T> {
+    private static final int STABLE = 0;
+    private static final int PUSHED_RIGHT = 1; // left neighbour's right link may be stale
+    private static final int PUSHED_LEFT = 2; // right neighbour's left link may be stale
+
+    private static final class Node<T> {
+        private final T data;
+        private volatile Node<T> left;
+        private volatile Node<T> right;
+
+        public Node(T data) {
+            this.data = data;
+        }
+    }
+
+    private static final class Anchor<T> {
+        private final Node<T> left;
+        private final Node<T> right;
+        private final int status;
+
+        public Anchor(Node<T> left, Node<T> right, int status) {
+            this.left = left;
+            this.right = right;
+            this.status = status;
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> LEFT =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "left");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> RIGHT =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "right");
+
+    private final AtomicReference<Anchor<T>> anchor =
+            new AtomicReference<Anchor<T>>(new Anchor<T>(null, null, STABLE));
+    private final LongAdder length = new LongAdder();
+
+    /** Accessors */
+
+    /**
+     * Returns whether the deque is empty at this moment.
+     * @return whether the deque is empty
+     */
+    public boolean isEmpty() {
+        return anchor.get().left == null;
+    }
+
+    /**
+     * Returns the number of values in the deque. While other threads are
+     * adding or removing, the count may be briefly off by the number of
+     * operations in flight.
+     * @return the length of the deque from 0 to n
+     */
+    public int getLength() {
+        return Math.max(0, length.intValue());
+    }
+
+    /**
+     * Returns the value at the front of the deque at this moment.
+     * @precondition the deque must not be empty
+     * @return the first value
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public T getFirst() throws NoSuchElementException {
+        Node<T> first = anchor.get().left;
+        if (first == null) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        return first.data;
+    }
+
+    /**
+     * Returns the value at the end of the deque at this moment.
+     * @precondition the deque must not be empty
+     * @return the last value
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public T getLast() throws NoSuchElementException {
+        Node<T> last = anchor.get().right;
+        if (last == null) {
+            throw new NoSuchElementException("The deque is empty.");
+        }
+        return last.data;
+    }
+
+    /** Mutators */
+
+    /**
+     * Adds a value at the front of the deque.
+     * @param data the data to add
+     * @precondition data != null
+     * @throws NullPointerException when the precondition is violated
+     */
+    public void addFirst(T data) throws NullPointerException {
+        if (data == null) {
+            throw new NullPointerException("Data cannot be null");
+        }
+        Node<T> node = new Node<T>(data);
+        while (true) {
+            Anchor<T> a = anchor.get();
+            if (a.left == null) {
+                if (anchor.compareAndSet(a, new Anchor<T>(node, node, STABLE))) {
+                    break;
+                }
+            } else if (a.status == STABLE) {
+                node.right = a.left;
+                Anchor<T> pushed = new Anchor<T>(node, a.right, PUSHED_LEFT);
+                if (anchor.compareAndSet(a, pushed)) {
+                    stabilizeLeft(pushed);
+                    break;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+        length.increment();
+    }
+
+    /**
+     * Adds a value at the end of the deque.
+     * @param data the data to add
+     * @precondition data != null
+     * @throws NullPointerException when the precondition is violated
+     */
+    public void addLast(T data) throws NullPointerException {
+        if (data == null) {
+            throw new NullPointerException("Data cannot be null");
+        }
+        Node<T> node = new Node<T>(data);
+        while (true) {
+            Anchor<T> a = anchor.get();
+            if (a.right == null) {
+                if (anchor.compareAndSet(a, new Anchor<T>(node, node, STABLE))) {
+                    break;
+                }
+            } else if (a.status == STABLE) {
+                node.left = a.right;
+                Anchor<T> pushed = new Anchor<T>(a.left, node, PUSHED_RIGHT);
+                if (anchor.compareAndSet(a, pushed)) {
+                    stabilizeRight(pushed);
+                    break;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+        length.increment();
+    }
+
+    /**
+     * Removes and returns the value at the front of the deque.
+     * @precondition the deque must not be empty
+     * @return the removed value
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public T removeFirst() throws NoSuchElementException {
+        while (true) {
+            Anchor<T> a = anchor.get();
+            if (a.left == null) {
+                throw new NoSuchElementException("The deque is empty.");
+            }
+            if (a.left == a.right) {
+                if (anchor.compareAndSet(a, new Anchor<T>(null, null, STABLE))) {
+                    return removed(a.left);
+                }
+            } else if (a.status == STABLE) {
+                // a stable anchor means every link between the ends is set
+                Node<T> next = a.left.right;
+                if (anchor.compareAndSet(a, new Anchor<T>(next, a.right, STABLE))) {
+                    // drop the back link so the removed node can be collected;
+                    // fails harmlessly if a later addFirst already relinked it
+                    LEFT.compareAndSet(next, a.left, null);
+                    return removed(a.left);
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the value at the end of the deque.
+     * @precondition the deque must not be empty
+     * @return the removed value
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public T removeLast() throws NoSuchElementException {
+        while (true) {
+            Anchor<T> a = anchor.get();
+            if (a.right == null) {
+                throw new NoSuchElementException("The deque is empty.");
+            }
+            if (a.left == a.right) {
+                if (anchor.compareAndSet(a, new Anchor<T>(null, null, STABLE))) {
+                    return removed(a.right);
+                }
+            } else if (a.status == STABLE) {
+                Node<T> prev = a.right.left;
+                if (anchor.compareAndSet(a, new Anchor<T>(a.left, prev, STABLE))) {
+                    RIGHT.compareAndSet(prev, a.right, null);
+                    return removed(a.right);
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+    }
+
+    /**
+     * Counts a removal and hands back the value of the removed node.
+     * @param node the node just unlinked from the anchor
+     * @return its value
+     */
+    private T removed(Node<T> node) {
+        length.decrement();
+        return node.data;
+    }
+
+    /**
+     * Finishes whichever push left the anchor unstable.
+     * @param a the unstable anchor
+     */
+    private void stabilize(Anchor<T> a) {
+        if (a.status == PUSHED_RIGHT) {
+            stabilizeRight(a);
+        } else {
+            stabilizeLeft(a);
+        }
+    }
+
+    /**
+     * Points the old last node at the node pushed after it, then marks
+     * the anchor stable. Does nothing once the anchor has moved on, since
+     * another thread has then finished the job.
+     * @param a the anchor left by addLast
+     */
+    private void stabilizeRight(Anchor<T> a) {
+        Node<T> prev = a.right.left;
+        if (anchor.get() != a) {
+            return;
+        }
+        Node<T> prevNext = prev.right;
+        if (prevNext != a.right) {
+            if (anchor.get() != a || !RIGHT.compareAndSet(prev, prevNext, a.right)) {
+                return;
+            }
+        }
+        anchor.compareAndSet(a, new Anchor<T>(a.left, a.right, STABLE));
+    }
+
+    /**
+     * Points the old first node at the node pushed before it, then marks
+     * the anchor stable.
+     * @param a the anchor left by addFirst
+     */
+    private void stabilizeLeft(Anchor<T> a) {
+        Node<T> next = a.left.right;
+        if (anchor.get() != a) {
+            return;
+        }
+        Node<T> nextPrev = next.left;
+        if (nextPrev != a.left) {
+            if (anchor.get() != a || !LEFT.compareAndSet(next, nextPrev, a.left)) {
+                return;
+            }
+        }
+        anchor.compareAndSet(a, new Anchor<T>(a.left, a.right, STABLE));
+    }
+}
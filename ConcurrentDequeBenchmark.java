@@ -0,0 +1,172 @@
+/**
+ * ConcurrentDequeBenchmark.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures throughput of ConcurrentDeque, java.util.concurrent's
+ * ConcurrentLinkedDeque and this repo's LinkedList behind a lock, from 1
+ * to 32 threads. Half the threads are producers calling addLast and half
+ * are consumers calling removeFirst; a single thread alternates the two.
+ * Each point runs for one second after a warm-up pass over every point.
+ *
+ * Usage: java ConcurrentDequeBenchmark [milliseconds per point]
+ */
+public class ConcurrentDequeBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32};
+    private static final int BATCH = 64; // operations between checks of the stop flag
+
+    /**
+     * The two operations under test, so each deque can be driven by the
+     * same loop.
+     */
+    private interface DequeUnderTest {
+        void addLast(Integer value);
+
+        /**
+         * Removes the first value if there is one.
+         * @return whether a value was removed
+         */
+        boolean removeFirst();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        System.out.println("Millions of operations per second, " + millis + " ms per point\n");
+        System.out.println("threads  ConcurrentDeque  ConcurrentLinkedDeque  synchronized LinkedList");
+        for (int pass = 0; pass < 2; pass++) {
+            for (int threads : THREADS) {
+                double ours = run(threads, millis, newConcurrentDeque());
+                double jdk = run(threads, millis, newConcurrentLinkedDeque());
+                double locked = run(threads, millis, newSynchronizedLinkedList());
+                if (pass == 1) {
+                    System.out.printf("%4d     %8.1f         %8.1f               %8.1f%n",
+                            threads, ours, jdk, locked);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs producers and consumers against a deque for a fixed time.
+     * @param threads the number of threads
+     * @param millis how long to run
+     * @param deque the deque under test
+     * @return the operations completed, in millions per second
+     * @throws InterruptedException when interrupted while waiting for
+     * the threads
+     */
+    private static double run(int threads, long millis, DequeUnderTest deque)
+            throws InterruptedException {
+        AtomicBoolean stop = new AtomicBoolean();
+        LongAdder operations = new LongAdder();
+        Integer value = 42;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            boolean both = threads == 1;
+            boolean producer = t % 2 == 0;
+            workers[t] = new Thread(() -> {
+                long count = 0;
+                while (!stop.get()) {
+                    for (int i = 0; i < BATCH; i++) {
+                        if (both) {
+                            deque.addLast(value);
+                            deque.removeFirst();
+                            count += 2;
+                        } else if (producer) {
+                            deque.addLast(value);
+                            count++;
+                        } else if (deque.removeFirst()) {
+                            count++;
+                        }
+                    }
+                }
+                operations.add(count);
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        Thread.sleep(millis);
+        stop.set(true);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum() / (millis * 1e3);
+    }
+
+    /**
+     * Wraps a new ConcurrentDeque.
+     * @return the wrapper
+     */
+    private static DequeUnderTest newConcurrentDeque() {
+        ConcurrentDeque<Integer> deque = new ConcurrentDeque<>();
+        return new DequeUnderTest() {
+            @Override
+            public void addLast(Integer value) {
+                deque.addLast(value);
+            }
+
+            @Override
+            public boolean removeFirst() {
+                try {
+                    deque.removeFirst();
+                    return true;
+                } catch (NoSuchElementException e) {
+                    return false;
+                }
+            }
+        };
+    }
+
+    /**
+     * Wraps a new ConcurrentLinkedDeque.
+     * @return the wrapper
+     */
+    private static DequeUnderTest newConcurrentLinkedDeque() {
+        ConcurrentLinkedDeque<Integer> deque = new ConcurrentLinkedDeque<>();
+        return new DequeUnderTest() {
+            @Override
+            public void addLast(Integer value) {
+                deque.addLast(value);
+            }
+
+            @Override
+            public boolean removeFirst() {
+                return deque.pollFirst() != null;
+            }
+        };
+    }
+
+    /**
+     * Wraps a new LinkedList, locking it around each operation.
+     * @return the wrapper
+     */
+    private static DequeUnderTest newSynchronizedLinkedList() {
+        LinkedList<Integer> list = new LinkedList<>();
+        return new DequeUnderTest() {
+            @Override
+            public void addLast(Integer value) {
+                synchronized (list) {
+                    list.addLast(value);
+                }
+            }
+
+            @Override
+            public boolean removeFirst() {
+                synchronized (list) {
+                    if (list.isEmpty()) {
+                        return false;
+                    }
+                    list.removeFirst();
+                    return true;
+                }
+            }
+        };
+    }
+}
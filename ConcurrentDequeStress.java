@@ -0,0 +1,217 @@
+/**
+ * ConcurrentDequeStress.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs many threads against one ConcurrentDeque and checks what comes out.
+ *
+ * In the queue test, producers add (producer, sequence number) pairs at the
+ * end and consumers remove from the front. Every pair must be removed
+ * exactly once, and each consumer must see each producer's pairs in the
+ * order they were added. In the mixed test, every thread adds and removes
+ * at random ends; every value added must be removed exactly once, either
+ * by a thread or by the final drain.
+ *
+ * Usage: java ConcurrentDequeStress [trials] [threads]
+ * The queue test splits the threads evenly between producers and
+ * consumers; the mixed test uses all of them. The defaults are 20 trials
+ * and 8 threads. Exits with status 1 if any trial fails.
+ */
+public class ConcurrentDequeStress {
+    private static final int VALUES_PER_PRODUCER = 50000;
+    private static final int MIXED_OPS_PER_THREAD = 40000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int trials = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        if (threads < 2) {
+            throw new IllegalArgumentException("At least 2 threads are needed");
+        }
+        int failures = 0;
+        for (int trial = 1; trial <= trials; trial++) {
+            String queue = queueTest(threads / 2, threads - threads / 2, VALUES_PER_PRODUCER);
+            String mixed = mixedTest(threads, MIXED_OPS_PER_THREAD);
+            System.out.println("Trial " + trial + ": queue " + (queue == null ? "ok" : queue)
+                    + ", mixed " + (mixed == null ? "ok" : mixed));
+            if (queue != null || mixed != null) {
+                failures++;
+            }
+        }
+        System.out.println(failures == 0 ? "\nAll " + trials + " trials passed."
+                : "\n" + failures + " of " + trials + " trials failed.");
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Producers add at the end while consumers remove from the front.
+     * @param producers the number of producer threads
+     * @param consumers the number of consumer threads
+     * @param perProducer the number of values each producer adds
+     * @return a description of the first problem found, or null if none
+     * @throws InterruptedException when interrupted while waiting for
+     * the threads
+     */
+    private static String queueTest(int producers, int consumers, int perProducer)
+            throws InterruptedException {
+        ConcurrentDeque<int[]> deque = new ConcurrentDeque<>();
+        AtomicIntegerArray[] received = new AtomicIntegerArray[producers];
+        for (int p = 0; p < producers; p++) {
+            received[p] = new AtomicIntegerArray(perProducer);
+        }
+        AtomicInteger finishedProducers = new AtomicInteger();
+        AtomicReference<String> problem = new AtomicReference<>();
+        Thread[] threads = new Thread[producers + consumers];
+
+        for (int p = 0; p < producers; p++) {
+            final int id = p;
+            threads[p] = new Thread(() -> {
+                for (int seq = 0; seq < perProducer; seq++) {
+                    deque.addLast(new int[] {id, seq});
+                }
+                finishedProducers.incrementAndGet();
+            });
+        }
+        for (int c = 0; c < consumers; c++) {
+            threads[producers + c] = new Thread(() -> {
+                int[] lastSeq = new int[producers];
+                Arrays.fill(lastSeq, -1);
+                while (true) {
+                    int[] value;
+                    try {
+                        value = deque.removeFirst();
+                    } catch (NoSuchElementException e) {
+                        if (finishedProducers.get() == producers && deque.isEmpty()) {
+                            return;
+                        }
+                        Thread.yield();
+                        continue;
+                    }
+                    int id = value[0];
+                    int seq = value[1];
+                    if (seq <= lastSeq[id]) {
+                        problem.compareAndSet(null, "producer " + id + " value " + seq
+                                + " arrived after value " + lastSeq[id]);
+                    }
+                    lastSeq[id] = seq;
+                    if (received[id].getAndIncrement(seq) != 0) {
+                        problem.compareAndSet(null, "producer " + id + " value " + seq
+                                + " removed twice");
+                    }
+                }
+            });
+        }
+        runAll(threads);
+
+        if (problem.get() != null) {
+            return problem.get();
+        }
+        for (int p = 0; p < producers; p++) {
+            for (int seq = 0; seq < perProducer; seq++) {
+                if (received[p].get(seq) == 0) {
+                    return "producer " + p + " value " + seq + " was never removed";
+                }
+            }
+        }
+        if (!deque.isEmpty() || deque.getLength() != 0) {
+            return "deque not empty after every value was removed";
+        }
+        return null;
+    }
+
+    /**
+     * Every thread adds and removes at randomly chosen ends; what is left
+     * is drained afterwards.
+     * @param threadCount the number of threads
+     * @param opsPerThread the number of operations each thread performs
+     * @return a description of the first problem found, or null if none
+     * @throws InterruptedException when interrupted while waiting for
+     * the threads
+     */
+    private static String mixedTest(int threadCount, int opsPerThread)
+            throws InterruptedException {
+        ConcurrentDeque<Integer> deque = new ConcurrentDeque<>();
+        // 0 = never added, 1 = added, 2 = removed
+        AtomicIntegerArray state = new AtomicIntegerArray(threadCount * opsPerThread);
+        AtomicReference<String> problem = new AtomicReference<>();
+        Thread[] threads = new Thread[threadCount];
+
+        for (int t = 0; t < threadCount; t++) {
+            final int id = t;
+            threads[t] = new Thread(() -> {
+                Random random = new Random(id);
+                for (int i = 0; i < opsPerThread; i++) {
+                    int value = id * opsPerThread + i;
+                    int op = random.nextInt(4);
+                    if (op < 2) {
+                        state.set(value, 1);
+                        if (op == 0) {
+                            deque.addFirst(value);
+                        } else {
+                            deque.addLast(value);
+                        }
+                    } else {
+                        try {
+                            int removed = op == 2 ? deque.removeFirst() : deque.removeLast();
+                            markRemoved(state, removed, problem);
+                        } catch (NoSuchElementException e) {
+                            // the deque was empty at that moment
+                        }
+                    }
+                }
+            });
+        }
+        runAll(threads);
+        while (!deque.isEmpty()) {
+            markRemoved(state, deque.removeFirst(), problem);
+        }
+
+        if (problem.get() != null) {
+            return problem.get();
+        }
+        for (int value = 0; value < state.length(); value++) {
+            if (state.get(value) == 1) {
+                return "value " + value + " was added but never removed";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records that a value came out of the deque, noting a problem if it
+     * was never added or was already removed.
+     * @param state the state of every value
+     * @param value the removed value
+     * @param problem where to record the first problem found
+     */
+    private static void markRemoved(AtomicIntegerArray state, int value,
+            AtomicReference<String> problem) {
+        if (!state.compareAndSet(value, 1, 2)) {
+            problem.compareAndSet(null, "value " + value
+                    + (state.get(value) == 2 ? " removed twice" : " removed before it was added"));
+        }
+    }
+
+    /**
+     * Starts every thread, then waits for all of them to finish.
+     * @param threads the threads to run
+     * @throws InterruptedException when interrupted while waiting
+     */
+    private static void runAll(Thread[] threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,383 @@
+/**
+ * ConcurrentHashTable.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A chained HashTable that many threads can share. The buckets are split
+ * into stripes, each guarded by its own read/write lock: readers of a
+ * stripe share its read lock, writers take its write lock, and operations
+ * on different stripes never wait for each other. The element count is a
+ * LongAdder so writers on different stripes do not contend on it.
+ *
+ * The table size is always a multiple of the stripe count, so an element's
+ * stripe depends only on its hash code and never changes when the table
+ * grows. Growing takes every write lock and rehashes the whole table.
+ * @param <T> the generic data stored in the table
+ */
+public class ConcurrentHashTable<T> {
+    private static final int DEFAULT_STRIPES = 16;
+    private static final double DEFAULT_MAX_LOAD_FACTOR = 0.75;
+
+    private final ReentrantReadWriteLock[] locks;
+    private final LongAdder numElements = new LongAdder();
+    private final int initialSize;
+    private final double maxLoadFactor;
+    // replaced only while every write lock is held
+    private volatile ArrayList<LinkedList<T>> table;
+
+    /**
+     * Constructor for the ConcurrentHashTable class with 16 stripes that
+     * grows once the load factor passes 0.75.
+     * @param size the initial table size
+     * @precondition size > 0
+     * @throws IllegalArgumentException when size <= 0
+     */
+    public ConcurrentHashTable(int size) throws IllegalArgumentException {
+        this(size, DEFAULT_MAX_LOAD_FACTOR, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructor for the ConcurrentHashTable class. The size is rounded
+     * up to a multiple of the stripe count.
+     * @param size the initial table size
+     * @param maxLoadFactor the load factor after which the table grows
+     * @param stripes the number of locks the buckets are split between
+     * @precondition size > 0, maxLoadFactor > 0, stripes > 0
+     * @throws IllegalArgumentException when the precondition is violated
+     */
+    public ConcurrentHashTable(int size, double maxLoadFactor, int stripes)
+            throws IllegalArgumentException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be greater than 0");
+        }
+        if (!(maxLoadFactor > 0)) {
+            throw new IllegalArgumentException("Max load factor must be greater than 0");
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripes must be greater than 0");
+        }
+        locks = new ReentrantReadWriteLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+        this.initialSize = (size + stripes - 1) / stripes * stripes;
+        this.maxLoadFactor = maxLoadFactor;
+        table = newTable(initialSize);
+    }
+
+    /**
+     * Creates a list of size empty buckets.
+     * @param size the number of buckets
+     * @return the new bucket list
+     */
+    private ArrayList<LinkedList<T>> newTable(int size) {
+        ArrayList<LinkedList<T>> buckets = new ArrayList<LinkedList<T>>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new LinkedList<T>());
+        }
+        return buckets;
+    }
+
+    /** Accessors */
+
+    /**
+     * Returns the lock guarding an element's buckets.
+     * @param obj the element
+     * @return the stripe lock
+     */
+    private ReentrantReadWriteLock lockFor(T obj) {
+        return locks[Hashing.index(obj.hashCode(), locks.length)];
+    }
+
+    /**
+     * Returns the lock guarding a bucket.
+     * @param index the index in the table
+     * @return the stripe lock
+     */
+    private ReentrantReadWriteLock lockFor(int index) {
+        return locks[index % locks.length];
+    }
+
+    /**
+     * Returns the bucket holding an element. Must be called with the
+     * element's stripe lock held.
+     * @param obj the element
+     * @return the bucket
+     */
+    private LinkedList<T> bucketOf(T obj) {
+        ArrayList<LinkedList<T>> current = table;
+        return current.get(Hashing.index(obj.hashCode(), current.size()));
+    }
+
+    /**
+     * Returns the size of the table, i.e. the number of buckets.
+     * @return the number of buckets
+     */
+    public int getTableSize() {
+        return table.size();
+    }
+
+    /**
+     * Counts the number of elements at this index.
+     * @param index the index in the table
+     * @precondition 0 <= index < getTableSize()
+     * @return the count of elements at this index
+     * @throws IndexOutOfBoundsException when the precondition is violated
+     */
+    public int countBucket(int index) throws IndexOutOfBoundsException {
+        if (index < 0) {
+            throw new IndexOutOfBoundsException("Invalid index");
+        }
+        ReentrantReadWriteLock lock = lockFor(index);
+        lock.readLock().lock();
+        try {
+            if (index >= table.size()) {
+                throw new IndexOutOfBoundsException("Invalid index");
+            }
+            return table.get(index).getLength();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Determines total number of elements in the table
+     * @return total number of elements
+     */
+    public int getNumElements() {
+        return numElements.intValue();
+    }
+
+    /**
+     * Accesses a specified element in the Table
+     * @param elmt the key to search for
+     * @return the element in the table equal to elmt,
+     * or null if this table contains no such element.
+     * @precondition elmt != null
+     * @throws NullPointerException when the precondition is violated.
+     */
+    public T get(T elmt) throws NullPointerException {
+        if (elmt == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        ReentrantReadWriteLock lock = lockFor(elmt);
+        lock.readLock().lock();
+        try {
+            return bucketOf(elmt).search(elmt);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Accesses a specified element in the table.
+     * @param elmt the element to locate
+     * @return the bucket number where the element
+     * is located or -1 if it is not found.
+     * @precondition elmt != null
+     * @throws NullPointerException when the precondition is violated.
+     */
+    public int find(T elmt) throws NullPointerException {
+        if (elmt == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        ReentrantReadWriteLock lock = lockFor(elmt);
+        lock.readLock().lock();
+        try {
+            ArrayList<LinkedList<T>> current = table;
+            int bucket = Hashing.index(elmt.hashCode(), current.size());
+            return current.get(bucket).findIndex(elmt) == -1 ? -1 : bucket;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Determines whether a specified element is in the table.
+     * @param elmt the element to locate
+     * @return whether the element is in the table
+     * @precondition elmt != null
+     * @throws NullPointerException when the precondition is violated
+     */
+    public boolean contains(T elmt) throws NullPointerException {
+        return find(elmt) != -1;
+    }
+
+    /** Mutators */
+
+    /**
+     * Inserts a new element in the table at the end of the chain
+     * of the correct bucket.
+     * @param elmt the element to insert
+     * @precondition elmt != null
+     * @throws NullPointerException when the precondition is violated.
+     */
+    public void add(T elmt) throws NullPointerException {
+        if (elmt == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        ReentrantReadWriteLock lock = lockFor(elmt);
+        lock.writeLock().lock();
+        try {
+            bucketOf(elmt).addLast(elmt);
+            numElements.increment();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (getLoadFactor() > maxLoadFactor) {
+            grow();
+        }
+    }
+
+    /**
+     * Removes the given element from the table.
+     * @param elmt the element to remove
+     * @precondition elmt != null
+     * @return whether elmt exists and was removed from the table
+     * @throws NullPointerException when the precondition is violated
+     */
+    public boolean delete(T elmt) throws NullPointerException {
+        if (elmt == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        ReentrantReadWriteLock lock = lockFor(elmt);
+        lock.writeLock().lock();
+        try {
+            Iterator<T> it = bucketOf(elmt).iterator();
+            while (it.hasNext()) {
+                if (it.next().equals(elmt)) {
+                    it.remove();
+                    numElements.decrement();
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Resets the hash table back to the empty state, as if the
+     * constructor has just been called.
+     */
+    public void clear() {
+        lockAll();
+        try {
+            table = newTable(initialSize);
+            numElements.reset();
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Doubles the table size, unless another thread already grew it.
+     */
+    private void grow() {
+        lockAll();
+        try {
+            ArrayList<LinkedList<T>> old = table;
+            if ((double) numElements.sum() / old.size() <= maxLoadFactor) {
+                return;
+            }
+            ArrayList<LinkedList<T>> grown = newTable(old.size() * 2);
+            for (LinkedList<T> list : old) {
+                for (T elmt : list) {
+                    grown.get(Hashing.index(elmt.hashCode(), grown.size())).addLast(elmt);
+                }
+            }
+            table = grown;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Takes every write lock, always in the same order.
+     */
+    private void lockAll() {
+        for (ReentrantReadWriteLock lock : locks) {
+            lock.writeLock().lock();
+        }
+    }
+
+    /**
+     * Releases every write lock.
+     */
+    private void unlockAll() {
+        for (int i = locks.length - 1; i >= 0; i--) {
+            locks[i].writeLock().unlock();
+        }
+    }
+
+    /** Additional Methods */
+
+    /**
+     * Computes the load factor.
+     * @return the load factor
+     */
+    public double getLoadFactor() {
+        return numElements.doubleValue() / table.size();
+    }
+
+    /**
+     * Creates a String of all elements at a given bucket
+     * @param bucket the index in the table
+     * @return a String of elements, separated by spaces with a new line character
+     *         at the end
+     * @precondition 0 <= bucket < getTableSize()
+     * @throws IndexOutOfBoundsException when bucket is out of bounds
+     */
+    public String bucketToString(int bucket) throws IndexOutOfBoundsException {
+        if (bucket < 0) {
+            throw new IndexOutOfBoundsException("Invalid bucket index");
+        }
+        ReentrantReadWriteLock lock = lockFor(bucket);
+        lock.readLock().lock();
+        try {
+            if (bucket >= table.size()) {
+                throw new IndexOutOfBoundsException("Invalid bucket index");
+            }
+            LinkedList<T> list = table.get(bucket);
+            return list.isEmpty() ? "\n" : list.toString();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starting at the 0th bucket, and continuing in order until the last
+     * bucket, concatenates all elements at all buckets into one String, with
+     * a new line between buckets and one more new line at the end of the
+     * entire String. Holds every read lock, so the result is a consistent
+     * snapshot.
+     * @return a String of all elements in this ConcurrentHashTable.
+     */
+    @Override
+    public String toString() {
+        for (ReentrantReadWriteLock lock : locks) {
+            lock.readLock().lock();
+        }
+        try {
+            StringBuilder sb = new StringBuilder();
+            for (LinkedList<T> bucket : table) {
+                if (!bucket.isEmpty()) {
+                    sb.append(bucket.toString());
+                }
+            }
+            sb.append("\n");
+            return sb.toString();
+        } finally {
+            for (int i = locks.length - 1; i >= 0; i--) {
+                locks[i].readLock().unlock();
+            }
+        }
+    }
+}
@@ -5,17 +5,28 @@
  */
 import java.text.DecimalFormat;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.ToIntBiFunction;
 
 public class Customer {
+    private static final Comparator<MutualFundAccount> BY_NAME = new NameComparator();
+    // ties on value fall back to the fund name, so fundsValue never treats two
+    // different accounts as the same one
+    private static final Comparator<MutualFundAccount> BY_VALUE =
+            new ValueComparator().thenComparing(BY_NAME);
+    private static final ToIntBiFunction<String, MutualFundAccount> NAME_KEY =
+            (name, account) -> name.compareTo(account.getMf().getFundName());
+
     private String firstName;
     private String lastName;
     private String email;
     private String password;
     private String accountNum;
     private double cash;
-    private BST<MutualFundAccount> fundsValue = new BST<>();
-    private BST<MutualFundAccount> fundsName = new BST<>();
+    private BST<MutualFundAccount> fundsValue = new BST<>(BY_VALUE, true);
+    private BST<MutualFundAccount> fundsName = new BST<>(BY_NAME, true);
 
     /**CONSTRUCTORS*/
 
@@ -71,17 +82,30 @@ public class Customer {
      */
     public Customer(String firstName, String lastName, String email,
             String password, double cash, ArrayList<MutualFundAccount> al) {
+        this(firstName, lastName, email, password, MutualFundAccount.getAccountSeed() + "", cash, al);
+    }
+
+    /**
+     * Creates a Customer whose account number is already known,
+     * e.g. one read back from an OffHeapCustomerStore.
+     * @param firstName member first name
+     * @param lastName member last name
+     * @param email the Customer email
+     * @param password the Customer password
+     * @param accountNum the account number
+     * @param cash the amount of cash
+     * @param al the MutualFundAccounts owned by this Customer
+     */
+    public Customer(String firstName, String lastName, String email, String password,
+            String accountNum, double cash, ArrayList<MutualFundAccount> al) {
         this.firstName = firstName;
         this.lastName = lastName;
         this.email = email;
         this.password = password;
         this.cash = cash;
-        this.accountNum = MutualFundAccount.getAccountSeed() + "";
-
-        for (MutualFundAccount account : al) {
-            fundsName.insert(account, new NameComparator());
-            fundsValue.insert(account, new ValueComparator());
-        }
+        this.accountNum = accountNum;
+        this.fundsName = BST.build(al, BY_NAME, true);
+        this.fundsValue = BST.build(al, BY_VALUE, true);
     }
 
     /**ACCESORS*/
@@ -134,12 +158,62 @@ public class Customer {
      */
     public MutualFundAccount getAccountByName(String name) {
         if (name == null) return null;
-        MutualFundAccount dummy = new MutualFundAccount(0, new MutualFund(name, ""));
-        try {
-            return fundsName.search(dummy, new NameComparator());
-        } catch (NoSuchElementException e) {
-            return null;
+        return fundsName.searchByKey(name, NAME_KEY);
+    }
+
+    /**
+     * Accesses the customer's most valuable accounts.
+     * @param k the number of accounts wanted
+     * @return up to k accounts, most valuable first
+     * @throws IllegalArgumentException when k is negative
+     */
+    public ArrayList<MutualFundAccount> getTopAccounts(int k) throws IllegalArgumentException {
+        return fundsValue.topK(k);
+    }
+
+    /**
+     * Accesses the accounts whose value lies in a range.
+     * @param lo the smallest value, in dollars
+     * @param hi the largest value, in dollars
+     * @return the accounts worth from lo to hi, least valuable first
+     */
+    public ArrayList<MutualFundAccount> getAccountsByValue(double lo, double hi) {
+        // the bounds' fund names sort before and after every real one
+        return toList(fundsValue.range(new MutualFundAccount(lo, new MutualFund("", "", 1, 0)),
+                new MutualFundAccount(hi, new MutualFund("\uffff", "", 1, 0))));
+    }
+
+    /**
+     * Accesses the accounts whose fund name lies in a range.
+     * @param lo the first name, in alphabetical order
+     * @param hi the last name, in alphabetical order
+     * @return the accounts named from lo to hi, alphabetized by name
+     */
+    public ArrayList<MutualFundAccount> getAccountsByName(String lo, String hi) {
+        return toList(fundsName.range(new MutualFundAccount(new MutualFund(lo, "")),
+                new MutualFundAccount(new MutualFund(hi, ""))));
+    }
+
+    /**
+     * Accesses the combined value of all the customer's accounts.
+     * @return the total value, in dollars
+     */
+    public double getAccountsValue() {
+        return fundsName.reduce(0.0, (total, account) -> total
+                + account.getNumShares() * account.getMf().getPricePerShare(), Double::sum);
+    }
+
+    /**
+     * Collects the rest of an Iterator into a list.
+     * @param it the Iterator
+     * @return the values in iteration order
+     */
+    private static ArrayList<MutualFundAccount> toList(Iterator<MutualFundAccount> it) {
+        ArrayList<MutualFundAccount> list = new ArrayList<>();
+        while (it.hasNext()) {
+            list.add(it.next());
         }
+        return list;
     }
 
     /**
@@ -222,13 +296,15 @@ public class Customer {
 
         MutualFundAccount existingAccount = getAccountByName(mf.getFundName());
         if (existingAccount != null) {
-            // Update existing account
+            // Update existing account, moving it to its new place by value
+            fundsValue.remove(existingAccount);
             existingAccount.updateShares(shares);
+            fundsValue.insert(existingAccount);
         } else {
             // Create a new account
             MutualFundAccount newAccount = new MutualFundAccount(shares, mf);
-            fundsName.insert(newAccount, new NameComparator());
-            fundsValue.insert(newAccount, new ValueComparator());
+            fundsName.insert(newAccount);
+            fundsValue.insert(newAccount);
         }
 
         // Deduct cash
@@ -292,19 +368,18 @@ public void sellShares(String name, double shares) {
     if (shares > account.getNumShares()) {
        throw new IllegalArgumentException("Insufficient shares to sell.");
     }
-    fundsName.remove(account, new NameComparator());
-    fundsValue.remove(account, new ValueComparator());
+    // only the value order changes, so fundsName keeps the account
+    // unless it is closed
+    fundsValue.remove(account);
     double saleValue = shares * account.getMf().getPricePerShare();
     double fee = saleValue * (account.getMf().getTradingFee() / 100.0);
     this.cash += (saleValue - fee);
     account.updateShares(-shares);
     if (account.getNumShares() == 0) {
-       fundsName.remove(account, new NameComparator());
-       fundsValue.remove(account, new ValueComparator());
+       fundsName.remove(account);
     }
     else {
-    fundsName.insert(account, new NameComparator());
-    fundsValue.insert(account, new ValueComparator());
+    fundsValue.insert(account);
   }
 }
 
@@ -357,18 +432,13 @@ public void sellShares(String name, double shares) {
     }
 
     /**
-     * Returns a consistent hash code for each Customer by summing
-     * the Unicode values of each character in the key.
+     * Returns a consistent hash code for each Customer by combining
+     * the string hashes of each part of the key.
      * Key = email + password
      * @return the hash code
      */
     @Override
     public int hashCode() {
-        int hash = 0;
-        String combined = email + password;
-        for (char c : combined.toCharArray()) {
-            hash += c;
-        }
-        return hash;
+        return Hashing.combine(Hashing.hashString(email), Hashing.hashString(password));
     }
 }
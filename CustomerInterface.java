@@ -14,13 +14,20 @@ public class CustomerInterface {
     public static void main(String[] args) throws IOException {
         final int NUM_MUTUAL_FUNDS = 7;
         final int NUM_CUSTOMERS = 100;
-        HashTable<MutualFund> funds = new HashTable<>(NUM_MUTUAL_FUNDS * 2);
-        HashTable<Customer> customers = new HashTable<>(NUM_CUSTOMERS);
+        final double MAX_LOAD_FACTOR = 0.75;
+        HashMap<String, MutualFund> funds = new HashMap<>(NUM_MUTUAL_FUNDS * 2);
+        HashMap<String, Customer> customers = new HashMap<>(NUM_CUSTOMERS, MAX_LOAD_FACTOR);
 
         DecimalFormat df = new DecimalFormat("###,##0.00");
         
         loadMutualFunds(funds);
         loadCustomers(customers, funds);
+
+        if (args.length > 0 && args[0].equals("-report")) {
+            System.out.println("Customer table:\n" + customers.distributionReport());
+            System.out.println("Mutual fund table:\n" + funds.distributionReport());
+            return;
+        }
         
         Scanner scanner = new Scanner(System.in);
         String choice = "";
@@ -30,7 +37,7 @@ public class CustomerInterface {
         scanner.close();
     }
 
-    private static void loadMutualFunds(HashTable<MutualFund> funds) throws IOException {
+    private static void loadMutualFunds(HashMap<String, MutualFund> funds) throws IOException {
         try (BufferedReader reader = new BufferedReader(new FileReader("mutual_funds.txt"))) {
             String line;
             while ((line = reader.readLine()) != null) {
@@ -38,12 +45,12 @@ public class CustomerInterface {
                 String ticker = reader.readLine().trim();
                 double sharePrice = Double.parseDouble(reader.readLine().trim());
                 double fee = Double.parseDouble(reader.readLine().trim());
-                funds.add(new MutualFund(mutualName, ticker, sharePrice, fee));
+                funds.put(ticker, new MutualFund(mutualName, ticker, sharePrice, fee));
             }
         }
     }
 
-    private static void loadCustomers(HashTable<Customer> customers, HashTable<MutualFund> funds) throws FileNotFoundException {
+    private static void loadCustomers(HashMap<String, Customer> customers, HashMap<String, MutualFund> funds) throws FileNotFoundException {
         File file2 = new File("customers.txt");
         Scanner input = new Scanner(file2);
         
@@ -61,8 +68,7 @@ public class CustomerInterface {
                 String ticker = input.nextLine().trim();
                 double shares = Double.parseDouble(input.nextLine().trim());
                 
-                MutualFund dummyFund = new MutualFund(ticker);
-                MutualFund actualFund = funds.get(dummyFund);
+                MutualFund actualFund = funds.get(ticker);
                 
                 if (actualFund != null) {
                     MutualFundAccount account = new MutualFundAccount(shares, actualFund);
@@ -71,7 +77,7 @@ public class CustomerInterface {
             }
             
             Customer customer = new Customer(firstName, lastName, email, password, cash, customerFunds);
-            customers.add(customer);
+            customers.put(email, customer);
             
             if (input.hasNextLine()) {
                 input.nextLine();
@@ -80,7 +86,7 @@ public class CustomerInterface {
         input.close();
     }
     
-    private static void displayMenu(Scanner scanner, String choice, HashTable<MutualFund> funds, HashTable<Customer> customers, DecimalFormat df) {
+    private static void displayMenu(Scanner scanner, String choice, HashMap<String, MutualFund> funds, HashMap<String, Customer> customers, DecimalFormat df) {
         try {
             System.out.print("Welcome to Mutual Fund InvestorTrack (TM)!");
             System.out.print("\n\nPlease enter your email address: ");
@@ -88,7 +94,12 @@ public class CustomerInterface {
             System.out.print("Please enter your password: ");
             String password = scanner.next();
             
-            Customer currentCustomer = customers.get(new Customer(email, password));
+            Customer currentCustomer = customers.get(email);
+            
+            if (currentCustomer != null && !currentCustomer.passwordMatch(password)) {
+                System.out.println("\nIncorrect password. Goodbye!");
+                return;
+            }
             
             if (currentCustomer == null) {
                 System.out.println("\nWe don't have your account on file...");
@@ -98,7 +109,7 @@ public class CustomerInterface {
                 System.out.print("Enter your last name: ");
                 String lastName = scanner.next();
                 currentCustomer = new Customer(firstName, lastName, email, password);
-                customers.add(currentCustomer);
+                customers.put(email, currentCustomer);
             }
             
             System.out.println("\nWelcome, " + currentCustomer.getFirstName() + " " + currentCustomer.getLastName() + "!\n");
@@ -139,7 +150,7 @@ public class CustomerInterface {
             System.out.println("Error reading input. Please try again.");
         }
     }
-    private static void purchaseFund(Customer currentCustomer, HashTable<MutualFund> funds, Scanner scanner) {
+    private static void purchaseFund(Customer currentCustomer, HashMap<String, MutualFund> funds, Scanner scanner) {
         System.out.println("Please select from the options below:\n");
         System.out.println(funds.toString());
     
@@ -150,8 +161,7 @@ public class CustomerInterface {
         try {
             double shares = Double.parseDouble(scanner.next().trim());
     
-            MutualFund dummyFund = new MutualFund(ticker);
-            MutualFund actualFund = funds.get(dummyFund);
+            MutualFund actualFund = funds.get(ticker);
     
             if (actualFund != null) {
                 double cost = actualFund.getPricePerShare() * shares;
@@ -0,0 +1,422 @@
+/**
+ * HashMap.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+import java.util.ArrayList;
+import java.util.function.Function;
+
+/**
+ * A chained hash table that maps keys to values, so lookups can be made
+ * with the key alone instead of a dummy element. String keys are hashed
+ * with Hashing.hashString rather than String.hashCode. Grows like HashTable:
+ * once the load factor passes the max, the table doubles and the old
+ * buckets are moved over a few at a time on each following operation.
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class HashMap<K, V> {
+    private static class Entry<K, V> {
+        private final K key;
+        private final int code;
+        private V value;
+        private Entry<K, V> next;
+
+        public Entry(K key, int code, V value) {
+            this.key = key;
+            this.code = code;
+            this.value = value;
+            this.next = null;
+        }
+    }
+
+    /** Number of old buckets moved into the grown table per operation */
+    private static final int MIGRATION_STEP = 2;
+    private static final double DEFAULT_MAX_LOAD_FACTOR = 0.75;
+
+    private int numElements;
+    private ArrayList<Entry<K, V>> table;
+    private ArrayList<Entry<K, V>> oldTable; // null unless a resize is in progress
+    private int migrateIndex;
+    private final int initialSize;
+    private final double maxLoadFactor;
+
+    /**
+     * Constructor for the HashMap class. Grows once the load factor
+     * passes 0.75.
+     * @param size the initial table size
+     * @precondition size > 0
+     * @throws IllegalArgumentException when size <= 0
+     */
+    public HashMap(int size) throws IllegalArgumentException {
+        this(size, DEFAULT_MAX_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor for the HashMap class.
+     * @param size the initial table size
+     * @param maxLoadFactor the load factor after which the table grows
+     * @precondition size > 0, maxLoadFactor > 0
+     * @throws IllegalArgumentException when the precondition is violated
+     */
+    public HashMap(int size, double maxLoadFactor) throws IllegalArgumentException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be greater than 0");
+        }
+        if (!(maxLoadFactor > 0)) {
+            throw new IllegalArgumentException("Max load factor must be greater than 0");
+        }
+        this.initialSize = size;
+        this.maxLoadFactor = maxLoadFactor;
+        table = newTable(size);
+        oldTable = null;
+        migrateIndex = 0;
+        numElements = 0;
+    }
+
+    /**
+     * Creates a list of size empty buckets.
+     * @param size the number of buckets
+     * @return the new bucket list
+     */
+    private ArrayList<Entry<K, V>> newTable(int size) {
+        ArrayList<Entry<K, V>> buckets = new ArrayList<Entry<K, V>>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(null);
+        }
+        return buckets;
+    }
+
+    /** Accessors */
+
+    /**
+     * Returns the bucket for a hash code in a table of the given size.
+     * @param code the key's hash code
+     * @param size the table size
+     * @return the index in the table
+     */
+    private static int hash(int code, int size) {
+        return Hashing.index(code, size);
+    }
+
+    /**
+     * Returns the size of the table, i.e. the number of buckets.
+     * @return the number of buckets
+     */
+    public int getTableSize() {
+        return table.size();
+    }
+
+    /**
+     * Determines total number of mappings in the map
+     * @return total number of mappings
+     */
+    public int getNumElements() {
+        return numElements;
+    }
+
+    /**
+     * Accesses the value mapped to a key.
+     * @param key the key to search for
+     * @return the value to which the key is mapped,
+     * or null if this map contains no mapping for the key.
+     * @precondition key != null
+     * @throws NullPointerException when the precondition is violated.
+     */
+    public V get(K key) throws NullPointerException {
+        Entry<K, V> entry = findEntry(key);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Determines whether a key is mapped to a value.
+     * @param key the key to locate
+     * @return whether the key is in the map
+     * @precondition key != null
+     * @throws NullPointerException when the precondition is violated
+     */
+    public boolean containsKey(K key) throws NullPointerException {
+        return findEntry(key) != null;
+    }
+
+    /**
+     * Locates the entry for a key.
+     * @param key the key to locate
+     * @return the entry or null if the key is not mapped
+     * @throws NullPointerException when key is null
+     */
+    private Entry<K, V> findEntry(K key) throws NullPointerException {
+        if (key == null) {
+            throw new NullPointerException("Key cannot be null");
+        }
+        int code = Hashing.hashCode(key);
+        Entry<K, V> entry = table.get(prepareBucket(code));
+        while (entry != null) {
+            if (entry.code == code && entry.key.equals(key)) {
+                return entry;
+            }
+            entry = entry.next;
+        }
+        return null;
+    }
+
+    /** Mutators */
+
+    /**
+     * Maps a key to a value, replacing any earlier value.
+     * @param key the key
+     * @param value the value
+     * @return the previous value for the key, or null if there was none
+     * @precondition key != null
+     * @throws NullPointerException when the precondition is violated.
+     */
+    public V put(K key, V value) throws NullPointerException {
+        Entry<K, V> entry = findEntry(key);
+        if (entry != null) {
+            V previous = entry.value;
+            entry.value = value;
+            return previous;
+        }
+        addEntry(key, value);
+        return null;
+    }
+
+    /**
+     * Returns the value for a key, first mapping it to the result of
+     * mapper when the key is not yet in the map.
+     * @param key the key
+     * @param mapper computes a value for a missing key
+     * @return the current or newly computed value, or null if mapper
+     * returned null (in which case nothing is added)
+     * @precondition key != null
+     * @throws NullPointerException when the precondition is violated.
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> mapper)
+            throws NullPointerException {
+        Entry<K, V> entry = findEntry(key);
+        if (entry != null) {
+            return entry.value;
+        }
+        V value = mapper.apply(key);
+        if (value != null) {
+            addEntry(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Inserts a new entry at the end of the chain of the correct bucket.
+     * @param key a key that is not yet in the map
+     * @param value the value
+     */
+    private void addEntry(K key, V value) {
+        int code = Hashing.hashCode(key);
+        int bucket = hash(code, table.size());
+        Entry<K, V> entry = new Entry<K, V>(key, code, value);
+        Entry<K, V> temp = table.get(bucket);
+        if (temp == null) {
+            table.set(bucket, entry);
+        } else {
+            while (temp.next != null) {
+                temp = temp.next;
+            }
+            temp.next = entry;
+        }
+        numElements++;
+        if (getLoadFactor() > maxLoadFactor) {
+            grow();
+        }
+    }
+
+    /**
+     * Removes the mapping for a key.
+     * @param key the key to remove
+     * @return the value that was mapped to the key, or null if there was none
+     * @precondition key != null
+     * @throws NullPointerException when the precondition is violated
+     */
+    public V remove(K key) throws NullPointerException {
+        if (key == null) {
+            throw new NullPointerException("Key cannot be null");
+        }
+        int code = Hashing.hashCode(key);
+        int bucket = prepareBucket(code);
+        Entry<K, V> prev = null;
+        Entry<K, V> entry = table.get(bucket);
+        while (entry != null) {
+            if (entry.code == code && entry.key.equals(key)) {
+                if (prev == null) {
+                    table.set(bucket, entry.next);
+                } else {
+                    prev.next = entry.next;
+                }
+                numElements--;
+                return entry.value;
+            }
+            prev = entry;
+            entry = entry.next;
+        }
+        return null;
+    }
+
+    /**
+     * Resets the map back to the empty state, as if the
+     * constructor has just been called.
+     */
+    public void clear() {
+        table = newTable(initialSize);
+        oldTable = null;
+        migrateIndex = 0;
+        numElements = 0;
+    }
+
+    /**
+     * Moves a few more old buckets into the table and makes sure the
+     * bucket for a hash code holds all of its entries.
+     * @param code the hash code about to be accessed
+     * @return the index of the code's bucket in the table
+     */
+    private int prepareBucket(int code) {
+        int bucket = hash(code, table.size());
+        if (oldTable != null) {
+            int oldBucket = bucket % oldTable.size();
+            if (oldTable.get(oldBucket) != null) {
+                migrateBucket(oldBucket);
+            }
+            for (int i = 0; i < MIGRATION_STEP && oldTable != null; i++) {
+                migrateNext();
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Doubles the table size. The old buckets are moved lazily, except that
+     * an unfinished earlier resize is completed first.
+     */
+    private void grow() {
+        while (oldTable != null) {
+            migrateNext();
+        }
+        oldTable = table;
+        table = newTable(oldTable.size() * 2);
+        migrateIndex = 0;
+    }
+
+    /**
+     * Moves the next old bucket in order into the table, and drops the old
+     * table once every bucket has been moved.
+     */
+    private void migrateNext() {
+        migrateBucket(migrateIndex);
+        migrateIndex++;
+        if (migrateIndex == oldTable.size()) {
+            oldTable = null;
+            migrateIndex = 0;
+        }
+    }
+
+    /**
+     * Relinks the entries of one old bucket into the two table buckets they
+     * can land in, keeping their order.
+     * @param oldBucket the index in the old table
+     */
+    private void migrateBucket(int oldBucket) {
+        if (oldTable.get(oldBucket) == null) {
+            return;
+        }
+        Entry<K, V> lowHead = null, lowTail = null;
+        Entry<K, V> highHead = null, highTail = null;
+        Entry<K, V> entry = oldTable.get(oldBucket);
+        while (entry != null) {
+            Entry<K, V> next = entry.next;
+            entry.next = null;
+            if (hash(entry.code, table.size()) == oldBucket) {
+                if (lowTail == null) {
+                    lowHead = entry;
+                } else {
+                    lowTail.next = entry;
+                }
+                lowTail = entry;
+            } else {
+                if (highTail == null) {
+                    highHead = entry;
+                } else {
+                    highTail.next = entry;
+                }
+                highTail = entry;
+            }
+            entry = next;
+        }
+        table.set(oldBucket, lowHead);
+        table.set(oldBucket + oldTable.size(), highHead);
+        oldTable.set(oldBucket, null);
+    }
+
+    /** Additional Methods */
+
+    /**
+     * Computes the load factor.
+     * @return the load factor
+     */
+    public double getLoadFactor() {
+        return (double) numElements / table.size();
+    }
+
+    /**
+     * Returns the entries at this index, including those still waiting
+     * in an old bucket. Entries of an unmoved old bucket that belong to
+     * the other half of the table are skipped.
+     * @param index the index in the table
+     * @return the first entry to visit at this index
+     */
+    private Entry<K, V> bucketAt(int index) {
+        if (oldTable == null || oldTable.get(index % oldTable.size()) == null) {
+            return table.get(index);
+        }
+        return oldTable.get(index % oldTable.size());
+    }
+
+    /**
+     * Creates a report of how evenly the keys are spread over the
+     * buckets, compared with uniform hashing.
+     * @return the bucket distribution report
+     */
+    public String distributionReport() {
+        int[] counts = new int[table.size()];
+        for (int i = 0; i < counts.length; i++) {
+            for (Entry<K, V> entry = bucketAt(i); entry != null; entry = entry.next) {
+                if (hash(entry.code, table.size()) == i) {
+                    counts[i]++;
+                }
+            }
+        }
+        return Hashing.distributionReport(counts);
+    }
+
+    /**
+     * Starting at the 0th bucket, and continuing in order until the last
+     * bucket, concatenates all values at all buckets into one String, with
+     * a new line between buckets and one more new line at the end of the
+     * entire String.
+     * @return a String of all values in this HashMap.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < table.size(); i++) {
+            boolean hasContent = false;
+            for (Entry<K, V> entry = bucketAt(i); entry != null; entry = entry.next) {
+                if (hash(entry.code, table.size()) == i) {
+                    sb.append(entry.value).append(" ");
+                    hasContent = true;
+                }
+            }
+            if (hasContent) {
+                sb.append("\n");
+            }
+        }
+        sb.append("\n");
+        return sb.toString();
+    }
+}
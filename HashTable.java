@@ -4,28 +4,225 @@
  * CIS 22C, Lab 13.2
  */
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class HashTable<T> implements Iterable<T> {
+    /**
+     * Computes the bucket of every element of an array, splitting the
+     * array in half until the pieces are small enough to do directly.
+     */
+    private static class HashTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int THRESHOLD = 1 << 13;
+        private final T[] array;
+        private final int[] buckets;
+        private final int size;
+        private final int from;
+        private final int to;
+
+        public HashTask(T[] array, int[] buckets, int size, int from, int to) {
+            this.array = array;
+            this.buckets = buckets;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    if (array[i] != null) {
+                        buckets[i] = Hashing.index(array[i].hashCode(), size);
+                    }
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new HashTask<T>(array, buckets, size, from, mid),
+                        new HashTask<T>(array, buckets, size, mid, to));
+            }
+        }
+    }
+
+    /**
+     * Visits the elements of a range of buckets in bucket order. Splits by
+     * halving the range, so a parallel stream can hand each half to another
+     * thread. Traversal changes nothing in the table, and fails with a
+     * ConcurrentModificationException once an element is added or deleted.
+     */
+    private class BucketSpliterator implements Spliterator<T> {
+        private int index; // next bucket to visit
+        private final int fence; // one past the last bucket
+        private long est;
+        private boolean sized;
+        private final int expectedModCount;
+        private final ArrayList<T> pending = new ArrayList<T>(); // rest of the last bucket
+        private int pendingIndex;
+
+        public BucketSpliterator(int index, int fence, long est, boolean sized, int expectedModCount) {
+            this.index = index;
+            this.fence = fence;
+            this.est = est;
+            this.sized = sized;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (index >= mid || pendingIndex < pending.size()) {
+                return null;
+            }
+            sized = false;
+            est >>>= 1;
+            Spliterator<T> prefix = new BucketSpliterator(index, mid, est, false, expectedModCount);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (action == null) {
+                throw new NullPointerException("Action cannot be null");
+            }
+            while (pendingIndex == pending.size()) {
+                if (index >= fence) {
+                    return false;
+                }
+                pending.clear();
+                pendingIndex = 0;
+                forEachInBucket(index++, pending::add);
+                checkForComodification();
+            }
+            action.accept(pending.get(pendingIndex++));
+            if (est > 0) {
+                est--;
+            }
+            checkForComodification();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (action == null) {
+                throw new NullPointerException("Action cannot be null");
+            }
+            while (pendingIndex < pending.size()) {
+                action.accept(pending.get(pendingIndex++));
+            }
+            while (index < fence) {
+                forEachInBucket(index++, action);
+                checkForComodification();
+            }
+            est = 0;
+        }
+
+        @Override
+        public long estimateSize() {
+            return est;
+        }
+
+        @Override
+        public int characteristics() {
+            return (sized ? SIZED : 0) | NONNULL;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /** Number of old buckets moved into the grown table per operation */
+    private static final int MIGRATION_STEP = 2;
+    /** Chain length past which a bucket turns into a tree */
+    private static final int TREEIFY_THRESHOLD = 8;
+    /** Tree size at which a bucket turns back into a list */
+    private static final int UNTREEIFY_THRESHOLD = 6;
 
-public class HashTable<T> {
     private int numElements;
     private ArrayList<LinkedList<T>> table;
+    private ArrayList<LinkedList<T>> oldTable; // null unless a resize is in progress
+    private ArrayList<TreeSet<T>> trees; // null until a bucket of table is a tree
+    private int migrateIndex;
+    private int modCount; // number of adds and deletes, for fail-fast traversal
+    private final int initialSize;
+    private final double maxLoadFactor;
+    private final Comparator<? super T> cmp;
+    private final Comparator<T> bucketOrder = this::compareInBucket;
+    private boolean moveToFront;
+    private boolean countScans;
+    private long lookups;
+    private long scanned;
 
     /**
      * Constructor for the HashTable class. Initializes the Table to be sized
      * according to value passed in as a parameter. Inserts size empty Lists into
-     * the table. Sets numElements to 0
+     * the table. Sets numElements to 0. The table never grows.
      * 
      * @param size the table size
      * @precondition size > 0
      * @throws IllegalArgumentException when size <= 0
      */
     public HashTable(int size) throws IllegalArgumentException {
+        this(size, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Constructor for a HashTable that grows. Once the load factor passes
+     * maxLoadFactor the table doubles in size, and the old buckets are
+     * moved into the new table a few at a time on each following add or
+     * delete. Lookups never move buckets, so they change nothing.
+     * @param size the initial table size
+     * @param maxLoadFactor the load factor after which the table grows
+     * @precondition size > 0, maxLoadFactor > 0
+     * @throws IllegalArgumentException when the precondition is violated
+     */
+    public HashTable(int size, double maxLoadFactor) throws IllegalArgumentException {
+        this(size, maxLoadFactor, null);
+    }
+
+    /**
+     * Constructor for a HashTable that grows and orders long chains with
+     * the given Comparator. A bucket whose chain grows past 8 elements
+     * becomes a search tree ordered by hash code and then by cmp, and turns
+     * back into a list once it shrinks to 6. Without a Comparator only
+     * buckets of Comparable elements become trees.
+     * @param size the initial table size
+     * @param maxLoadFactor the load factor after which the table grows
+     * @param cmp orders elements with equal hash codes, consistent with
+     * equals; null to use their natural ordering
+     * @precondition size > 0, maxLoadFactor > 0
+     * @throws IllegalArgumentException when the precondition is violated
+     */
+    public HashTable(int size, double maxLoadFactor, Comparator<? super T> cmp)
+            throws IllegalArgumentException {
         if (size <= 0) {
             throw new IllegalArgumentException("Size must be greater than 0");
         }
-        table = new ArrayList<LinkedList<T>>();
-        for (int i = 0; i < size; i++) {
-            table.add(new LinkedList<T>());
+        if (!(maxLoadFactor > 0)) {
+            throw new IllegalArgumentException("Max load factor must be greater than 0");
         }
+        this.initialSize = size;
+        this.maxLoadFactor = maxLoadFactor;
+        this.cmp = cmp;
+        moveToFront = false;
+        countScans = false;
+        table = newTable(size);
+        oldTable = null;
+        trees = null;
+        migrateIndex = 0;
         numElements = 0;
     }
 
@@ -40,31 +237,167 @@ public class HashTable<T> {
      */
     public HashTable(T[] array, int size) throws IllegalArgumentException {
         this(size);
-        if (array != null) {
-            for (T element : array) {
-                if (element != null) {
-                    add(element);
-                }
-            }
+        addAll(array);
+    }
+
+    /**
+     * Constructor for a HashTable that grows, bulk-loaded from an array.
+     * The table is sized for the whole array up front.
+     * @param array an array of elements to insert
+     * @param size the minimum size of the Table
+     * @param maxLoadFactor the load factor after which the table grows
+     * @precondition size > 0, maxLoadFactor > 0
+     * @throws IllegalArgumentException when the precondition is violated
+     */
+    public HashTable(T[] array, int size, double maxLoadFactor) throws IllegalArgumentException {
+        this(size, maxLoadFactor);
+        addAll(array);
+    }
+
+    /**
+     * Creates a list of size empty buckets.
+     * @param size the number of buckets
+     * @return the new bucket list
+     */
+    private ArrayList<LinkedList<T>> newTable(int size) {
+        ArrayList<LinkedList<T>> buckets = new ArrayList<LinkedList<T>>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new LinkedList<T>());
         }
+        return buckets;
     }
 
     /** Accessors */
 
     /**
      * Returns the hash value in the table for a given Object.
+     * The hash code is bit-mixed first so every bucket gets used.
+     * When the table doubles, the elements of old bucket i can only
+     * land in buckets i and i + old size.
      * @param obj the Object
      * @return the index in the table
      */
     private int hash(T obj) {
-        int code = obj.hashCode();
-        return Math.abs(code % table.size());
+        return Hashing.index(obj.hashCode(), table.size());
+    }
+
+    /**
+     * Orders the elements of a tree bucket: by hash code, then by the
+     * Comparator, or by natural ordering when there is none.
+     * @param a the first element
+     * @param b the second element
+     * @return the comparison
+     */
+    @SuppressWarnings("unchecked")
+    private int compareInBucket(T a, T b) {
+        int order = Integer.compare(a.hashCode(), b.hashCode());
+        if (order != 0) {
+            return order;
+        }
+        return cmp != null ? cmp.compare(a, b) : ((Comparable<? super T>) a).compareTo(b);
+    }
+
+    /**
+     * Returns the tree form of a table bucket.
+     * @param index the index in the table
+     * @return the tree bucket, or null if the bucket is a list
+     */
+    private TreeSet<T> treeAt(int index) {
+        return trees == null ? null : trees.get(index);
+    }
+
+    /**
+     * Returns the size of the table, i.e. the number of buckets.
+     * @return the number of buckets
+     */
+    public int getTableSize() {
+        return table.size();
+    }
+
+    /**
+     * Returns the load factor after which the table grows.
+     * @return the max load factor
+     */
+    public double getMaxLoadFactor() {
+        return maxLoadFactor;
+    }
+
+    /**
+     * Determines whether old buckets are still waiting to be moved
+     * into the grown table.
+     * @return whether a resize is in progress
+     */
+    public boolean isResizing() {
+        return oldTable != null;
+    }
+
+    /**
+     * Determines whether bucket index of the current table already holds
+     * all of its elements, i.e. the old bucket feeding it has been moved.
+     * @param index the index in the table
+     * @return whether the bucket is up to date
+     */
+    private boolean isMigrated(int index) {
+        return oldTable == null || oldTable.get(index % oldTable.size()).isEmpty();
+    }
+
+    /**
+     * Returns the list an element's equals would be found in: its bucket
+     * in the table, or the old bucket feeding it if that is not yet moved.
+     * Changes nothing, so it is safe for concurrent readers.
+     * @param elmt the element to locate
+     * @return the list holding elmt's bucket
+     */
+    private LinkedList<T> chainOf(T elmt) {
+        int bucket = hash(elmt);
+        if (isMigrated(bucket)) {
+            return table.get(bucket);
+        }
+        return oldTable.get(bucket % oldTable.size());
+    }
+
+    /**
+     * Returns the elements at this index, including those still waiting
+     * in an old bucket. The result is a copy while the bucket is unmigrated,
+     * so it must not be modified.
+     * @param index the index in the table
+     * @return the elements at this index
+     */
+    private LinkedList<T> bucketAt(int index) {
+        if (treeAt(index) == null && isMigrated(index)) {
+            return table.get(index);
+        }
+        LinkedList<T> copy = new LinkedList<T>();
+        forEachInBucket(index, copy::addLast);
+        return copy;
+    }
+
+    /**
+     * Performs the given action on each element at this index, including
+     * those still waiting in an old bucket. Changes nothing, so it is safe
+     * for concurrent readers.
+     * @param index the index in the table
+     * @param action the action to perform on each element
+     */
+    private void forEachInBucket(int index, Consumer<? super T> action) {
+        TreeSet<T> tree = treeAt(index);
+        if (tree != null) {
+            tree.forEach(action);
+        } else if (isMigrated(index)) {
+            table.get(index).forEach(action);
+        } else {
+            oldTable.get(index % oldTable.size()).forEach(elmt -> {
+                if (hash(elmt) == index) {
+                    action.accept(elmt);
+                }
+            });
+        }
     }
 
     /**
      * Counts the number of elements at this index.
      * @param index the index in the table
-     * @precondition 0 <= index < table.size()
+     * @precondition 0 <= index < getTableSize()
      * @return the count of elements at this index
      * @throws IndexOutOfBoundsException when the precondition is violated
      */
@@ -72,7 +405,8 @@ public class HashTable<T> {
         if (index < 0 || index >= table.size()) {
             throw new IndexOutOfBoundsException("Invalid index");
         }
-        return table.get(index).getLength();
+        TreeSet<T> tree = treeAt(index);
+        return tree != null ? tree.size() : bucketAt(index).getLength();
     }
 
     /**
@@ -95,20 +429,41 @@ public class HashTable<T> {
         if (elmt == null) {
            throw new NullPointerException("Element cannot be null");
         }
-        int bucketIndex = find(elmt);
-        if (bucketIndex == -1) {
-           return null;
+        TreeSet<T> tree = treeAt(hash(elmt));
+        if (tree != null) {
+            if (!isTreeable(elmt)) {
+                return null;
+            }
+            T found = tree.floor(elmt);
+            return found != null && found.equals(elmt) ? found : null;
+        }
+        LinkedList<T> chain = chainOf(elmt);
+        if (moveToFront) {
+            int index = chain.moveToFront(elmt);
+            if (index > 0) {
+                modCount++;
+            }
+            if (countScans) {
+                recordScan(index, chain);
+            }
+            return index == -1 ? null : chain.getFirst();
         }
-        table.get(bucketIndex).positionIterator();
-        while (!table.get(bucketIndex).offEnd()) {
-           if (table.get(bucketIndex).getIterator().equals(elmt)) {
-              return table.get(bucketIndex).getIterator();
-           }
-           table.get(bucketIndex).advanceIterator();
+        if (countScans) {
+            recordScan(chain.findIndex(elmt), chain);
         }
-        return null;
+        return chain.search(elmt);
    }
 
+    /**
+     * Adds one get to the scan counters.
+     * @param index where the element was found, or -1 if it was not
+     * @param chain the list that was scanned
+     */
+    private void recordScan(int index, LinkedList<T> chain) {
+        lookups++;
+        scanned += index == -1 ? chain.getLength() : index + 1;
+    }
+
     /**
      * Accesses a specified element in the table.
      * @param elmt the element to locate
@@ -121,9 +476,11 @@ public class HashTable<T> {
          if (elmt == null) {
             throw new NullPointerException("Element cannot be null");
          }
-         int bucketIndex = hash(elmt);
-         if (table.get(bucketIndex).findIndex(elmt) != -1) {
-            return bucketIndex;
+         if (treeAt(hash(elmt)) != null) {
+            return get(elmt) != null ? hash(elmt) : -1;
+         }
+         if (chainOf(elmt).findIndex(elmt) != -1) {
+            return hash(elmt);
          }
          return -1;
     }
@@ -152,9 +509,105 @@ public class HashTable<T> {
         if (elmt == null) {
             throw new NullPointerException("Element cannot be null");
         }
-        int bucket = hash(elmt);
-        table.get(bucket).addLast(elmt);
+        int bucket = prepareBucket(elmt);
+        insert(bucket, elmt);
         numElements++;
+        modCount++;
+        if (getLoadFactor() > maxLoadFactor) {
+            grow();
+        }
+    }
+
+    /**
+     * Inserts the contents of the given array, skipping nulls. Gives the
+     * same buckets, in the same order, as calling add on each element in
+     * turn on a table that is already big enough. The table is grown once
+     * up front, the hash codes are computed in parallel, and each bucket
+     * is then linked in one pass.
+     * @param array an array of elements to insert
+     */
+    public void addAll(T[] array) {
+        if (array == null) {
+            return;
+        }
+        int count = 0;
+        for (T element : array) {
+            if (element != null) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        while (oldTable != null) {
+            migrateNext();
+        }
+        int size = table.size();
+        while ((double) (numElements + count) / size > maxLoadFactor && size <= Integer.MAX_VALUE / 2) {
+            size *= 2;
+        }
+        if (size != table.size()) {
+            resize(size);
+        }
+
+        int[] buckets = new int[array.length];
+        ForkJoinPool.commonPool().invoke(new HashTask<T>(array, buckets, size, 0, array.length));
+
+        // group the elements by bucket, keeping their order within a bucket
+        int[] start = new int[size + 1];
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != null) {
+                start[buckets[i] + 1]++;
+            }
+        }
+        for (int b = 0; b < size; b++) {
+            start[b + 1] += start[b];
+        }
+        int[] order = new int[count];
+        int[] next = start.clone();
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != null) {
+                order[next[buckets[i]]++] = i;
+            }
+        }
+
+        for (int b = 0; b < size; b++) {
+            LinkedList<T> list = table.get(b);
+            boolean staysList = treeAt(b) == null
+                    && list.getLength() + start[b + 1] - start[b] <= TREEIFY_THRESHOLD;
+            for (int k = start[b]; k < start[b + 1]; k++) {
+                if (staysList) {
+                    list.addLast(array[order[k]]);
+                } else {
+                    insert(b, array[order[k]]);
+                }
+            }
+        }
+        numElements += count;
+        modCount++;
+    }
+
+    /**
+     * Places an element in a bucket of the table, turning the bucket into
+     * a tree or back into a list as needed.
+     * @param bucket the index in the table
+     * @param elmt the element to insert
+     */
+    private void insert(int bucket, T elmt) {
+        TreeSet<T> tree = treeAt(bucket);
+        if (tree != null) {
+            if (isTreeable(elmt) && tree.add(elmt)) {
+                return;
+            }
+            untreeify(bucket); // duplicates keep their list semantics
+        }
+        LinkedList<T> list = table.get(bucket);
+        list.addLast(elmt);
+        // retried every few adds in case an earlier attempt found duplicates
+        if (list.getLength() > TREEIFY_THRESHOLD
+                && (list.getLength() - 1) % TREEIFY_THRESHOLD == 0) {
+            treeify(bucket);
+        }
     }
 
     /**
@@ -168,39 +621,215 @@ public class HashTable<T> {
         if (elmt == null) {
             throw new NullPointerException("Element cannot be null");
         }
-        int bucket = hash(elmt);
-        LinkedList<T> list = table.get(bucket);
-        if (list.isEmpty()) {
-            return false;
-        }
-        
-        list.positionIterator();
-        while (!list.offEnd()) {
-            if (list.getIterator().equals(elmt)) {
-                list.removeIterator();
-                numElements--;
-                return true;
+        int bucket = prepareBucket(elmt);
+        TreeSet<T> tree = treeAt(bucket);
+        if (tree != null) {
+            T found = isTreeable(elmt) ? tree.floor(elmt) : null;
+            if (found == null || !found.equals(elmt)) {
+                return false;
             }
-            list.advanceIterator();
+            tree.remove(found);
+            numElements--;
+            modCount++;
+            if (tree.size() <= UNTREEIFY_THRESHOLD) {
+                untreeify(bucket);
+            }
+            return true;
+        }
+        if (table.get(bucket).remove(elmt)) {
+            numElements--;
+            modCount++;
+            return true;
         }
         return false;
     }
 
     /**
-     * Resets the hash table back to the empty state, as if the one argument
+     * Resets the hash table back to the empty state, as if the
      * constructor has just been called.
      */
     public void clear() {
-        int size = table.size();
-        table.clear();
-        for (int i = 0; i < size; i++) {
-            table.add(new LinkedList<T>());
-        }
+        table = newTable(initialSize);
+        oldTable = null;
+        trees = null;
+        migrateIndex = 0;
         numElements = 0;
+        modCount++;
+    }
+
+    /**
+     * Determines whether an element can be ordered inside a tree bucket.
+     * @param elmt the element
+     * @return whether there is a Comparator or elmt is Comparable
+     */
+    private boolean isTreeable(T elmt) {
+        return cmp != null || elmt instanceof Comparable;
+    }
+
+    /**
+     * Turns a long list bucket into a balanced (red-black) tree. Leaves the
+     * list alone if its elements cannot be ordered or two of them compare
+     * as equal.
+     * @param index the index in the table
+     */
+    private void treeify(int index) {
+        LinkedList<T> list = table.get(index);
+        TreeSet<T> tree = new TreeSet<T>(bucketOrder);
+        for (T elmt : list) {
+            if (!isTreeable(elmt) || !tree.add(elmt)) {
+                return;
+            }
+        }
+        if (trees == null) {
+            trees = new ArrayList<TreeSet<T>>(table.size());
+            for (int i = 0; i < table.size(); i++) {
+                trees.add(null);
+            }
+        }
+        trees.set(index, tree);
+        list.clear();
+    }
+
+    /**
+     * Turns a tree bucket back into a list, in tree order.
+     * @param index the index in the table
+     */
+    private void untreeify(int index) {
+        LinkedList<T> list = table.get(index);
+        trees.get(index).forEach(list::addLast);
+        trees.set(index, null);
+    }
+
+    /**
+     * Moves a few more old buckets into the table and makes sure the
+     * bucket for elmt holds all of its elements.
+     * @param elmt the element about to be added or deleted
+     * @return the index of elmt's bucket in the table
+     */
+    private int prepareBucket(T elmt) {
+        int bucket = hash(elmt);
+        if (oldTable != null) {
+            modCount++; // elements are about to move between tables
+            int oldBucket = bucket % oldTable.size();
+            if (!oldTable.get(oldBucket).isEmpty()) {
+                migrateBucket(oldBucket);
+            }
+            for (int i = 0; i < MIGRATION_STEP && oldTable != null; i++) {
+                migrateNext();
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Doubles the table size. The old buckets are moved lazily, except that
+     * an unfinished earlier resize is completed first. Tree buckets turn
+     * back into lists, since doubling halves their chains.
+     */
+    private void grow() {
+        while (oldTable != null) {
+            migrateNext();
+        }
+        untreeifyAll();
+        oldTable = table;
+        table = newTable(oldTable.size() * 2);
+        migrateIndex = 0;
+    }
+
+    /**
+     * Grows the table to the given size at once, moving every element.
+     * Must not be called while a resize is in progress.
+     * @param size the new size, the current size times a power of two
+     */
+    private void resize(int size) {
+        untreeifyAll();
+        ArrayList<LinkedList<T>> old = table;
+        table = newTable(size);
+        for (LinkedList<T> list : old) {
+            for (T elmt : list) {
+                table.get(hash(elmt)).addLast(elmt);
+            }
+        }
+    }
+
+    /**
+     * Turns every tree bucket back into a list.
+     */
+    private void untreeifyAll() {
+        if (trees != null) {
+            for (int i = 0; i < table.size(); i++) {
+                if (trees.get(i) != null) {
+                    untreeify(i);
+                }
+            }
+            trees = null;
+        }
+    }
+
+    /**
+     * Moves the next old bucket in order into the table, and drops the old
+     * table once every bucket has been moved.
+     */
+    private void migrateNext() {
+        migrateBucket(migrateIndex);
+        migrateIndex++;
+        if (migrateIndex == oldTable.size()) {
+            oldTable = null;
+            migrateIndex = 0;
+        }
+    }
+
+    /**
+     * Moves the elements of one old bucket into the table, keeping their order.
+     * @param oldBucket the index in the old table
+     */
+    private void migrateBucket(int oldBucket) {
+        LinkedList<T> list = oldTable.get(oldBucket);
+        for (T elmt : list) {
+            table.get(hash(elmt)).addLast(elmt);
+        }
+        list.clear();
     }
 
     /** Additional Methods */
 
+    /**
+     * Returns an Iterator over the elements in bucket order, the order
+     * toString lists them in. The Iterator does not support remove.
+     * @return an Iterator over the elements
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return Spliterators.iterator(spliterator());
+    }
+
+    /**
+     * Returns a Spliterator over the elements in bucket order, which
+     * splits on ranges of buckets.
+     * @return a Spliterator over the elements
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new BucketSpliterator(0, table.size(), numElements, true, modCount);
+    }
+
+    /**
+     * Returns a sequential Stream over the elements. Call parallel() on it
+     * to spread the buckets over the common ForkJoinPool.
+     * @return a Stream over the elements
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel Stream over the elements.
+     * @return a parallel Stream over the elements
+     */
+    public Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     /**
      * Computes the load factor.
      * @return the load factor
@@ -209,27 +838,75 @@ public class HashTable<T> {
         return (double) numElements / table.size();
     }
 
+    /**
+     * Turns the move-to-front bucket policy on or off. When it is on, get
+     * moves the element it finds to the front of its chain, so frequently
+     * requested elements are found after a short scan. get then reorders
+     * chains, so it is no longer safe for concurrent readers.
+     * @param moveToFront whether get moves found elements to the front
+     */
+    public void setMoveToFront(boolean moveToFront) {
+        this.moveToFront = moveToFront;
+    }
+
+    /**
+     * Turns the scan counters on or off. While they are on, every get on
+     * a list bucket records how many elements it compared, at the cost of
+     * a second pass over the chain when move-to-front is off.
+     * @param countScans whether get updates the scan counters
+     */
+    public void setCountScans(boolean countScans) {
+        this.countScans = countScans;
+    }
+
+    /**
+     * Returns the average number of elements compared per counted get.
+     * @return the average scan length, or 0 if no get was counted
+     */
+    public double getAverageScanLength() {
+        return lookups == 0 ? 0 : (double) scanned / lookups;
+    }
+
+    /**
+     * Resets the scan counters to zero.
+     */
+    public void resetScanCounts() {
+        lookups = 0;
+        scanned = 0;
+    }
+
+    /**
+     * Creates a report of how evenly the elements are spread over the
+     * buckets, compared with uniform hashing.
+     * @return the bucket distribution report
+     */
+    public String distributionReport() {
+        int[] counts = new int[table.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = countBucket(i);
+        }
+        return Hashing.distributionReport(counts);
+    }
+
     /**
      * Creates a String of all elements at a given bucket
      * @param bucket the index in the table
      * @return a String of elements, separated by spaces with a new line character
      *         at the end
-     * @precondition 0 <= bucket < table.size()
+     * @precondition 0 <= bucket < getTableSize()
      * @throws IndexOutOfBoundsException when bucket is out of bounds
      */
     public String bucketToString(int bucket) throws IndexOutOfBoundsException {
         if (bucket < 0 || bucket >= table.size()) {
             throw new IndexOutOfBoundsException("Invalid bucket index");
         }
-        LinkedList<T> list = table.get(bucket);
+        LinkedList<T> list = bucketAt(bucket);
         if (list.isEmpty()) {
             return "\n";
         }
         StringBuilder sb = new StringBuilder();
-        list.positionIterator();
-        while (!list.offEnd()) {
-            sb.append(list.getIterator()).append(" ");
-            list.advanceIterator();
+        for (T elmt : list) {
+            sb.append(elmt).append(" ");
         }
         sb.append("\n");
         return sb.toString();
@@ -246,7 +923,7 @@ public class HashTable<T> {
         StringBuilder sb = new StringBuilder();
         for (int i = 0; i < table.size(); i++) {
             sb.append("Bucket ").append(i).append(": ");
-            LinkedList<T> list = table.get(i);
+            LinkedList<T> list = bucketAt(i);
             if (list.isEmpty()) {
                 sb.append("empty\n");
             } else {
@@ -268,7 +945,8 @@ public class HashTable<T> {
         StringBuilder sb = new StringBuilder();
         boolean hasContent = false;
         
-        for (LinkedList<T> bucket : table) {
+        for (int i = 0; i < table.size(); i++) {
+            LinkedList<T> bucket = bucketAt(i);
             if (!bucket.isEmpty()) {
                 sb.append(bucket.toString());
                 hasContent = true;
@@ -0,0 +1,109 @@
+/**
+ * HashTableComparison.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+import java.util.Random;
+
+/**
+ * Compares the chained HashTable with the linear-probing OpenHashTable
+ * on a large set of Customers: heap used per entry, and average time per
+ * successful get.
+ *
+ * Bytes per entry count only what the table itself allocates, measured
+ * as the change in used heap after garbage collection, so they are
+ * approximate. The Customers use String.hashCode over the email, because
+ * the summed-character Customer.hashCode gives far too many collisions for
+ * a fair run at this size.
+ *
+ * Usage: java HashTableComparison [entries] [lookups]
+ */
+public class HashTableComparison {
+    private static final int ROUNDS = 5;
+
+    /**
+     * A Customer hashed by its email alone, which is consistent with
+     * Customer.equals since that compares the email too.
+     */
+    private static class Key extends Customer {
+        public Key(String email, String password) {
+            super(email, password);
+        }
+
+        @Override
+        public int hashCode() {
+            return getEmail().hashCode();
+        }
+    }
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 5000000;
+        Customer[] customers = new Customer[entries];
+        Customer[] probes = new Customer[entries]; // equal to, but not the same as, the stored ones
+        for (int i = 0; i < entries; i++) {
+            String email = "user" + i + "@example.com";
+            String password = "pw" + i % 100000;
+            customers[i] = new Key(email, password);
+            probes[i] = new Key(email, password);
+        }
+        int[] order = new int[lookups];
+        Random random = new Random(3);
+        for (int i = 0; i < lookups; i++) {
+            order[i] = random.nextInt(entries);
+        }
+
+        System.out.println(entries + " Customers, " + lookups + " random successful gets\n");
+
+        long before = usedHeap();
+        HashTable<Customer> chained = new HashTable<>(16, 0.75);
+        for (Customer customer : customers) {
+            chained.add(customer);
+        }
+        double chainedBytes = (usedHeap() - before) / (double) entries;
+        double chainedNanos = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i : order) {
+                if (chained.get(probes[i]) == null) {
+                    throw new IllegalStateException("HashTable lost " + probes[i].getEmail());
+                }
+            }
+            chainedNanos = Math.min(chainedNanos, (System.nanoTime() - start) / (double) lookups);
+        }
+        System.out.printf("HashTable (0.75 max load, %d buckets): %.1f bytes/entry, %.0f ns/lookup%n",
+                chained.getTableSize(), chainedBytes, chainedNanos);
+        chained = null;
+
+        before = usedHeap();
+        OpenHashTable<Customer> open = new OpenHashTable<>(16);
+        for (Customer customer : customers) {
+            open.add(customer);
+        }
+        double openBytes = (usedHeap() - before) / (double) entries;
+        double openNanos = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            for (int i : order) {
+                if (open.get(probes[i]) == null) {
+                    throw new IllegalStateException("OpenHashTable lost " + probes[i].getEmail());
+                }
+            }
+            openNanos = Math.min(openNanos, (System.nanoTime() - start) / (double) lookups);
+        }
+        System.out.printf("OpenHashTable (0.5 max load, %d slots): %.1f bytes/entry, %.0f ns/lookup%n",
+                open.getTableSize(), openBytes, openNanos);
+    }
+
+    /**
+     * Returns the heap in use once garbage collection has run.
+     * @return the used heap, in bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Hashing.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+import java.security.SecureRandom;
+
+/**
+ * Hash functions shared by the hash tables and the classes stored in them.
+ * Strings are hashed with a MurmurHash3-style function, and every hash
+ * code is bit-mixed before it is reduced to a bucket, so keys that differ
+ * in only a few bits still spread over the whole table.
+ *
+ * Run with -Dhashing.randomSeed=true to seed the functions randomly once
+ * per process. Bucket positions then cannot be predicted from outside,
+ * which guards against hash flooding. The default seed is 0, so table
+ * layouts are the same on every run.
+ */
+public final class Hashing {
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+    private static final int SEED = Boolean.getBoolean("hashing.randomSeed")
+            ? new SecureRandom().nextInt() : 0;
+
+    private Hashing() {
+    }
+
+    /**
+     * Hashes a String one character at a time, so that anagrams and
+     * permutations of the same characters give different codes.
+     * @param s the String to hash
+     * @return the hash code
+     * @precondition s != null
+     */
+    public static int hashString(String s) {
+        int h = SEED;
+        for (int i = 0; i < s.length(); i++) {
+            int k = s.charAt(i) * C1;
+            k = Integer.rotateLeft(k, 15) * C2;
+            h ^= k;
+            h = Integer.rotateLeft(h, 13) * 5 + 0xe6546b64;
+        }
+        return mix(h ^ s.length());
+    }
+
+    /**
+     * Combines two hash codes into one, order mattering.
+     * @param h1 the first hash code
+     * @param h2 the second hash code
+     * @return the combined hash code
+     */
+    public static int combine(int h1, int h2) {
+        return mix(h1 ^ (h2 + 0x9e3779b9 + (h1 << 6) + (h1 >>> 2)));
+    }
+
+    /**
+     * Returns the hash code used to place a key: Strings use hashString,
+     * anything else its own hashCode.
+     * @param key the key
+     * @return the hash code
+     * @precondition key != null
+     */
+    public static int hashCode(Object key) {
+        return key instanceof String ? hashString((String) key) : key.hashCode();
+    }
+
+    /**
+     * Spreads the bits of a hash code (the MurmurHash3 finalizer), so that
+     * every input bit affects every output bit.
+     * @param h the hash code
+     * @return the mixed hash code
+     */
+    public static int mix(int h) {
+        h ^= SEED;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * Returns the bucket for a hash code in a table of the given size.
+     * When the size doubles, bucket i maps onto buckets i and i + size only.
+     * @param code the hash code
+     * @param size the number of buckets
+     * @return the index in the table
+     * @precondition size > 0
+     */
+    public static int index(int code, int size) {
+        return (mix(code) & 0x7fffffff) % size;
+    }
+
+    /**
+     * Creates a report of how evenly elements are spread over buckets,
+     * next to what uniform hashing would give for the same load.
+     * @param counts the number of elements in each bucket
+     * @return the report as a String
+     */
+    public static String distributionReport(int[] counts) {
+        long total = 0;
+        int empty = 0;
+        int longest = 0;
+        for (int count : counts) {
+            total += count;
+            if (count == 0) {
+                empty++;
+            }
+            longest = Math.max(longest, count);
+        }
+        double load = (double) total / counts.length;
+        double variance = 0;
+        for (int count : counts) {
+            variance += (count - load) * (count - load);
+        }
+        variance /= counts.length;
+
+        int[] histogram = new int[Math.min(longest, 10) + 1];
+        for (int count : counts) {
+            histogram[Math.min(count, 10)]++;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Buckets: %d%nElements: %d%nLoad factor: %.3f%n",
+                counts.length, total, load));
+        sb.append(String.format("Empty buckets: %d (%.1f%%, uniform %.1f%%)%n",
+                empty, 100.0 * empty / counts.length, 100.0 * Math.exp(-load)));
+        sb.append(String.format("Longest chain: %d%n", longest));
+        sb.append(String.format("Chain length std. deviation: %.3f (uniform %.3f)%n",
+                Math.sqrt(variance), Math.sqrt(load)));
+        sb.append("Chain length histogram:\n");
+        for (int i = 0; i < histogram.length; i++) {
+            sb.append(String.format("%4s: %d%n", i == 10 ? "10+" : String.valueOf(i), histogram[i]));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,455 @@
+/**
+ * Defines a list indexed by position through a skip list
+ * @author Minh Long Hang
+ */
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * A list kept in insertion order, like LinkedList, whose nodes also carry
+ * skip-list links. Each link records its width, the number of positions it
+ * jumps, so get, set, add and remove at an index descend the levels in
+ * O(log n) expected time instead of stepping from the front.
+ *
+ * Positions are counted from the head sentinel at 0, so the element at
+ * index i sits at position i + 1. A missing link is treated as pointing one
+ * past the last element, which keeps every width exact.
+ * @param <T> the generic data stored in the list
+ */
+public class IndexedSkipList<T> implements Iterable<T> {
+    private static final int MAX_LEVEL = 32;
+
+    private class Node {
+        private T data;
+        private final Node[] next;
+        private final int[] width;
+
+        @SuppressWarnings("unchecked")
+        public Node(T data, int levels) {
+            this.data = data;
+            this.next = (Node[]) new IndexedSkipList<?>.Node[levels];
+            this.width = new int[levels];
+        }
+    }
+
+    /**
+     * An independent cursor along the bottom level. Changing the list
+     * other than through this cursor makes it throw a
+     * ConcurrentModificationException on its next use.
+     */
+    private class Cursor implements Iterator<T> {
+        private Node node; // the node before the next one returned
+        private int nextIndex;
+        private boolean canRemove;
+        private int expectedModCount = modCount;
+
+        public Cursor(int index) {
+            node = index == 0 ? head : nodeAt(index - 1);
+            nextIndex = index;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < length;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (nextIndex >= length) {
+                throw new NoSuchElementException("Iterator is off end.");
+            }
+            node = node.next[0];
+            nextIndex++;
+            canRemove = true;
+            return node.data;
+        }
+
+        @Override
+        public void remove() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!canRemove) {
+                throw new IllegalStateException("next must be called first");
+            }
+            canRemove = false;
+            nextIndex--;
+            IndexedSkipList.this.remove(nextIndex);
+            node = nextIndex == 0 ? head : nodeAt(nextIndex - 1);
+            expectedModCount = modCount;
+        }
+    }
+
+    private final Node head = new Node(null, MAX_LEVEL);
+    private final Node[] update = newPath(); // reused by add and remove
+    private final int[] updatePosition = new int[MAX_LEVEL];
+    private final Random random = new Random();
+    private int level = 1; // levels in use
+    private int length;
+    private int modCount; // number of structural changes, for the Cursors
+
+    /**** CONSTRUCTORS ****/
+
+    /**
+     * Instantiates a new empty IndexedSkipList
+     * @postcondition A new empty IndexedSkipList is created
+     */
+    public IndexedSkipList() {
+        head.width[0] = 1;
+    }
+
+    /**
+     * Converts the given array into an IndexedSkipList
+     * @param array the array of values to insert into this list
+     * @postcondition The array elements are added to the list in order
+     */
+    public IndexedSkipList(T[] array) {
+        this();
+        if (array != null) {
+            for (T element : array) {
+                addLast(element);
+            }
+        }
+    }
+
+    /**
+     * Creates an empty array with one slot per possible level.
+     * @return the array
+     */
+    @SuppressWarnings("unchecked")
+    private Node[] newPath() {
+        return (Node[]) new IndexedSkipList<?>.Node[MAX_LEVEL];
+    }
+
+    /**** ACCESSORS ****/
+
+    /**
+     * Returns the current length of the list
+     * @return the length of the list from 0 to n
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns whether the list is currently empty
+     * @return whether the list is empty
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Returns the element at an index
+     * @param index the index of the element
+     * @precondition 0 <= index < getLength()
+     * @return the element at index
+     * @throws IndexOutOfBoundsException when the precondition is violated
+     */
+    public T get(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        return nodeAt(index).data;
+    }
+
+    /**
+     * Returns the first value
+     * @precondition list must not be empty
+     * @return the first value
+     * @throws NoSuchElementException if the list is empty
+     */
+    public T getFirst() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The list is empty.");
+        }
+        return head.next[0].data;
+    }
+
+    /**
+     * Returns the last value
+     * @precondition list must not be empty
+     * @return the last value
+     * @throws NoSuchElementException if the list is empty
+     */
+    public T getLast() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The list is empty.");
+        }
+        return nodeAt(length - 1).data;
+    }
+
+    /**
+     * Searches the list for a given element's index. The list is ordered
+     * by position, not by value, so this is a linear scan.
+     * @param data the data whose index to locate.
+     * @return the index of the data or -1 if the data is not contained
+     * in the list.
+     */
+    public int findIndex(T data) {
+        int index = 0;
+        for (Node node = head.next[0]; node != null; node = node.next[0]) {
+            if (data == null ? node.data == null : data.equals(node.data)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a new, independent Iterator over the list from first to last.
+     * @return an Iterator over the elements
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Cursor(0);
+    }
+
+    /**
+     * Returns a new, independent Iterator whose first call to next returns
+     * the element at index, reached in O(log n).
+     * @param index the index of the first element to return
+     * @precondition 0 <= index <= getLength()
+     * @return an Iterator over the elements from index on
+     * @throws IndexOutOfBoundsException when the precondition is violated
+     */
+    public Iterator<T> iterator(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index > length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        return new Cursor(index);
+    }
+
+    /**
+     * Returns the node at an index by descending the levels.
+     * @param index the index, 0 <= index < length
+     * @return the node
+     */
+    private Node nodeAt(int index) {
+        int target = index + 1;
+        Node node = head;
+        int position = 0;
+        for (int l = level - 1; l >= 0; l--) {
+            while (node.next[l] != null && position + node.width[l] <= target) {
+                position += node.width[l];
+                node = node.next[l];
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Checks that an index refers to an element.
+     * @param index the index
+     * @throws IndexOutOfBoundsException when it does not
+     */
+    private void checkIndex(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+    }
+
+    /**** MUTATORS ****/
+
+    /**
+     * Replaces the element at an index
+     * @param index the index of the element
+     * @param data the new data
+     * @precondition 0 <= index < getLength()
+     * @throws IndexOutOfBoundsException when the precondition is violated
+     */
+    public void set(int index, T data) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        nodeAt(index).data = data;
+    }
+
+    /**
+     * Inserts an element so that it ends up at the given index
+     * @param index the index of the new element
+     * @param data the data to insert
+     * @precondition 0 <= index <= getLength()
+     * @throws IndexOutOfBoundsException when the precondition is violated
+     */
+    public void add(int index, T data) throws IndexOutOfBoundsException {
+        if (index < 0 || index > length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        int target = index + 1;
+        findPredecessors(target);
+        int levels = randomLevel();
+        while (level < levels) {
+            head.next[level] = null;
+            head.width[level] = length + 1;
+            update[level] = head;
+            updatePosition[level] = 0;
+            level++;
+        }
+        Node node = new Node(data, levels);
+        for (int l = 0; l < level; l++) {
+            Node before = update[l];
+            if (l < levels) {
+                // before's old successor moves up one position
+                node.width[l] = updatePosition[l] + before.width[l] + 1 - target;
+                node.next[l] = before.next[l];
+                before.next[l] = node;
+                before.width[l] = target - updatePosition[l];
+            } else {
+                before.width[l]++;
+            }
+        }
+        length++;
+        modCount++;
+    }
+
+    /**
+     * Creates a new first element
+     * @param data the data to insert at the front of the list
+     */
+    public void addFirst(T data) {
+        add(0, data);
+    }
+
+    /**
+     * Creates a new last element
+     * @param data the data to insert at the end of the list
+     */
+    public void addLast(T data) {
+        add(length, data);
+    }
+
+    /**
+     * Removes the element at an index
+     * @param index the index of the element
+     * @precondition 0 <= index < getLength()
+     * @return the removed element
+     * @throws IndexOutOfBoundsException when the precondition is violated
+     */
+    public T remove(int index) throws IndexOutOfBoundsException {
+        checkIndex(index);
+        findPredecessors(index + 1);
+        Node node = update[0].next[0];
+        for (int l = 0; l < level; l++) {
+            Node before = update[l];
+            if (before.next[l] == node) {
+                before.width[l] += node.width[l] - 1;
+                before.next[l] = node.next[l];
+            } else {
+                before.width[l]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        length--;
+        modCount++;
+        return node.data;
+    }
+
+    /**
+     * Removes the element at the front of the list
+     * @precondition list must not be empty
+     * @throws NoSuchElementException if the list is empty
+     */
+    public void removeFirst() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The list is empty.");
+        }
+        remove(0);
+    }
+
+    /**
+     * Removes the element at the end of the list
+     * @precondition list must not be empty
+     * @throws NoSuchElementException if the list is empty
+     */
+    public void removeLast() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The list is empty.");
+        }
+        remove(length - 1);
+    }
+
+    /**
+     * Re-sets the list to empty as if the default constructor had just
+     * been called
+     */
+    public void clear() {
+        head.next[0] = null;
+        head.width[0] = 1;
+        level = 1;
+        length = 0;
+        modCount++;
+    }
+
+    /**
+     * Records in update the last node on each level that lies before a
+     * position, and in updatePosition where each of those nodes is.
+     * @param target the position, 1 <= target <= length + 1
+     */
+    private void findPredecessors(int target) {
+        Node node = head;
+        int position = 0;
+        for (int l = level - 1; l >= 0; l--) {
+            while (node.next[l] != null && position + node.width[l] < target) {
+                position += node.width[l];
+                node = node.next[l];
+            }
+            update[l] = node;
+            updatePosition[l] = position;
+        }
+    }
+
+    /**
+     * Chooses how many levels a new node spans: one more for each
+     * consecutive coin flip that comes up heads.
+     * @return the number of levels, from 1 to MAX_LEVEL
+     */
+    private int randomLevel() {
+        return Integer.numberOfTrailingZeros(~random.nextInt() | 1 << (MAX_LEVEL - 1)) + 1;
+    }
+
+    /**** ADDITIONAL OPERATIONS ****/
+
+    /**
+     * Converts the list to a String, with each value followed by a blank,
+     * and a new line character at the end, as LinkedList does
+     * @return the list as a String
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (Node node = head.next[0]; node != null; node = node.next[0]) {
+            result.append(node.data).append(" ");
+        }
+        return result.append("\n").toString();
+    }
+
+    /**
+     * Returns one page of the list in the format of
+     * LinkedList.numberedListString: each element with its position from
+     * 1 to n, followed by a newline, and one more newline at the end.
+     * The page's first element is found in O(log n).
+     * @param from the index of the first element on the page
+     * @param count the most elements to include
+     * @precondition 0 <= from <= getLength(), count >= 0
+     * @return the numbered elements as a String
+     * @throws IndexOutOfBoundsException when from is out of bounds
+     * @throws IllegalArgumentException when count < 0
+     */
+    public String numberedListString(int from, int count)
+            throws IndexOutOfBoundsException, IllegalArgumentException {
+        if (count < 0) {
+            throw new IllegalArgumentException("count cannot be negative");
+        }
+        Iterator<T> it = iterator(from);
+        StringBuilder result = new StringBuilder();
+        for (int position = from + 1; position <= from + count && it.hasNext(); position++) {
+            result.append(position).append(". ").append(it.next()).append("\n");
+        }
+        return result.append("\n").toString();
+    }
+}
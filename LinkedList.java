@@ -2,9 +2,13 @@
  * Defines a doubly-linked list class
  * @author Minh Long Hang
  */
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
-public class LinkedList<T> {
+public class LinkedList<T> implements Iterable<T> {
     private class Node {
         private T data;
         private Node next;
@@ -17,10 +21,125 @@ public class LinkedList<T> {
         }
     }
 
+    /**
+     * An independent cursor over the list. Any number of them may traverse
+     * the list at once without disturbing each other or the built-in
+     * iterator. Changing the list other than through this cursor makes it
+     * throw a ConcurrentModificationException on its next use.
+     */
+    private class ListCursor implements ListIterator<T> {
+        private Node next; // null when at the end
+        private Node lastReturned; // null until next/previous, and after remove/add
+        private int nextIndex;
+        private int expectedModCount = modCount;
+
+        public ListCursor(int index) {
+            nextIndex = index;
+            if (index == length) {
+                next = null;
+            } else if (index < length / 2) {
+                next = first;
+                for (int i = 0; i < index; i++) {
+                    next = next.next;
+                }
+            } else {
+                next = last;
+                for (int i = length - 1; i > index; i--) {
+                    next = next.prev;
+                }
+            }
+        }
+
+        private void checkForModification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < length;
+        }
+
+        @Override
+        public T next() {
+            checkForModification();
+            if (next == null) {
+                throw new NoSuchElementException("Iterator is off end.");
+            }
+            lastReturned = next;
+            next = next.next;
+            nextIndex++;
+            return lastReturned.data;
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return nextIndex > 0;
+        }
+
+        @Override
+        public T previous() {
+            checkForModification();
+            if (nextIndex == 0) {
+                throw new NoSuchElementException("Iterator is off end.");
+            }
+            next = next == null ? last : next.prev;
+            lastReturned = next;
+            nextIndex--;
+            return lastReturned.data;
+        }
+
+        @Override
+        public int nextIndex() {
+            return nextIndex;
+        }
+
+        @Override
+        public int previousIndex() {
+            return nextIndex - 1;
+        }
+
+        @Override
+        public void remove() {
+            checkForModification();
+            if (lastReturned == null) {
+                throw new IllegalStateException("next or previous must be called first");
+            }
+            if (lastReturned == next) {
+                next = next.next; // removing what previous returned
+            } else {
+                nextIndex--;
+            }
+            unlink(lastReturned);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(T data) {
+            checkForModification();
+            if (lastReturned == null) {
+                throw new IllegalStateException("next or previous must be called first");
+            }
+            lastReturned.data = data;
+        }
+
+        @Override
+        public void add(T data) {
+            checkForModification();
+            linkBefore(data, next);
+            nextIndex++;
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+    }
+
     private int length;
     private Node first;
     private Node last;
     private Node iterator;
+    private int modCount; // number of structural changes, for the ListCursors
 
     /**** CONSTRUCTORS ****/
 
@@ -154,6 +273,7 @@ public class LinkedList<T> {
             first = newNode;
         }
         length++;
+        modCount++;
     }
 
     /**
@@ -172,6 +292,7 @@ public class LinkedList<T> {
             last = newNode;
         }
         length++;
+        modCount++;
     }
 
     /**
@@ -197,6 +318,7 @@ public class LinkedList<T> {
             first.prev = null;
             length--;
         }
+        modCount++;
     }
 
     /**
@@ -222,6 +344,7 @@ public class LinkedList<T> {
             last.next = null;
             length--;
         }
+        modCount++;
     }
 
     /**
@@ -245,6 +368,7 @@ public class LinkedList<T> {
             iterator.next.prev = newNode;
             iterator.next = newNode;
             length++;
+            modCount++;
         }
     }
 
@@ -267,11 +391,54 @@ public class LinkedList<T> {
             iterator.prev.next = iterator.next;
             iterator.next.prev = iterator.prev;
             length--;
+            modCount++;
         }
 
         iterator = null;
     }
 
+    /**
+     * Unlinks a node from the list. The iterator goes off end if it
+     * referenced the node.
+     * @param node the node to unlink
+     */
+    private void unlink(Node node) {
+        if (iterator == node) {
+            iterator = null;
+        }
+        if (node == first) {
+            removeFirst();
+        } else if (node == last) {
+            removeLast();
+        } else {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            length--;
+            modCount++;
+        }
+    }
+
+    /**
+     * Inserts a new node before the given node.
+     * @param data the data to insert
+     * @param successor the node to insert before, or null to insert at the end
+     */
+    private void linkBefore(T data, Node successor) {
+        if (successor == null) {
+            addLast(data);
+        } else if (successor == first) {
+            addFirst(data);
+        } else {
+            Node newNode = new Node(data);
+            newNode.prev = successor.prev;
+            newNode.next = successor;
+            successor.prev.next = newNode;
+            successor.prev = newNode;
+            length++;
+            modCount++;
+        }
+    }
+
     /**** ITERATOR OPERATIONS ****/
 
     /**
@@ -308,6 +475,41 @@ public class LinkedList<T> {
         iterator = iterator.prev;
     }
 
+    /**
+     * Returns a new, independent Iterator over the list from first to last.
+     * It does not move the built-in iterator, and its remove unlinks the
+     * element it last returned.
+     * @return an Iterator over the elements
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new ListCursor(0);
+    }
+
+    /**
+     * Returns a new, independent ListIterator starting at the front of
+     * the list.
+     * @return a ListIterator over the elements
+     */
+    public ListIterator<T> listIterator() {
+        return new ListCursor(0);
+    }
+
+    /**
+     * Returns a new, independent ListIterator whose first call to next
+     * returns the element at index, found from the nearer end of the list.
+     * @param index the index of the first element to return
+     * @precondition 0 <= index <= getLength()
+     * @return a ListIterator over the elements
+     * @throws IndexOutOfBoundsException when the precondition is violated
+     */
+    public ListIterator<T> listIterator(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index > length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        return new ListCursor(index);
+    }
+
     /**** ADDITIONAL OPERATIONS ****/
 
      /**
@@ -319,6 +521,7 @@ public class LinkedList<T> {
         last = null;
         iterator = null;
         length = 0;
+        modCount++;
     }
 
     /**
@@ -386,6 +589,8 @@ public class LinkedList<T> {
      * For example: [1, 2, 3, 4, 5], numMoves = 2 -> [4, 5, 1, 2 ,3]
      * For example: [1, 2, 3, 4, 5], numMoves = 4 -> [2, 3, 4, 5, 1]
      * For example: [1, 2, 3, 4, 5], numMoves = 7 -> [4, 5, 1, 2 ,3]
+     * The new last node is found by walking from whichever end of the
+     * list is nearer, and no node is allocated.
      * @param numMoves the number of times to move each node.
      * @precondition numMoves >= 0
      * @postcondition iterator position unchanged (i.e. still referencing
@@ -410,10 +615,18 @@ public class LinkedList<T> {
             return;
         }
     
-        // Find the new last node after spinning
-        Node newLast = first;
-        for (int i = 1; i < length - numMoves; i++) {
-            newLast = newLast.next;
+        // Find the new last node after spinning, from the nearer end
+        Node newLast;
+        if (length - numMoves <= numMoves) {
+            newLast = first;
+            for (int i = 1; i < length - numMoves; i++) {
+                newLast = newLast.next;
+            }
+        } else {
+            newLast = last;
+            for (int i = 0; i < numMoves; i++) {
+                newLast = newLast.prev;
+            }
         }
     
         // The node after newLast becomes the new first node
@@ -430,6 +643,7 @@ public class LinkedList<T> {
         // Update first and last pointers
         first = newFirst;
         last = newLast;
+        modCount++;
     }
 
  /**
@@ -446,22 +660,170 @@ public class LinkedList<T> {
      */
     public LinkedList<T> altLists(LinkedList<T> list) {
         LinkedList<T> result = new LinkedList<>();
+        for (T data : interleave(list)) {
+            result.addLast(data);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a view that alternates the values of this list and the given
+     * one, in the order altLists would copy them, without copying anything.
+     * Each traversal of the view walks both lists afresh, and fails with a
+     * ConcurrentModificationException if either changes meanwhile.
+     * @param list the second LinkedList, or null for none
+     * @return an Iterable over the alternating values
+     */
+    public Iterable<T> interleave(LinkedList<T> list) {
+        return () -> new Iterator<T>() {
+            private final Iterator<T> mine = iterator();
+            private final Iterator<T> theirs = list == null ? mine : list.iterator();
+            private boolean myTurn = true;
+
+            @Override
+            public boolean hasNext() {
+                return mine.hasNext() || theirs.hasNext();
+            }
+
+            @Override
+            public T next() {
+                Iterator<T> source = (myTurn && mine.hasNext()) || !theirs.hasNext() ? mine : theirs;
+                myTurn = source != mine;
+                return source.next();
+            }
+        };
+    }
+
+    /**
+     * Moves every node of the given list to the end of this one in O(1),
+     * relinking rather than copying. The given list is left empty, with its
+     * iterator off end; this list's iterator is unchanged.
+     * For example: [1, 2] concat [3, 4] -> [1, 2, 3, 4] and []
+     * @param list the list whose nodes to move
+     * @precondition list != null, list != this
+     * @throws NullPointerException when list is null
+     * @throws IllegalArgumentException when list is this list
+     */
+    public void concat(LinkedList<T> list) throws NullPointerException, IllegalArgumentException {
         if (list == null) {
-            return new LinkedList<>(this);
-        }
-        Node thisCurrent = this.first;
-        Node listCurrent = list.first;
-        while (thisCurrent != null || listCurrent != null) {
-            if (thisCurrent != null) {
-                result.addLast(thisCurrent.data);
-                thisCurrent = thisCurrent.next;
+            throw new NullPointerException("List cannot be null");
+        }
+        if (list == this) {
+            throw new IllegalArgumentException("Cannot concat a list onto itself");
+        }
+        if (list.length == 0) {
+            return;
+        }
+        if (length == 0) {
+            first = list.first;
+        } else {
+            last.next = list.first;
+            list.first.prev = last;
+        }
+        last = list.last;
+        length += list.length;
+        modCount++;
+        list.clear();
+    }
+
+    /**
+     * Moves every node of the given list into this one, right after the
+     * iterator, in O(1). The given list is left empty, with its iterator
+     * off end; this list's iterator is unchanged.
+     * For example: [1, 2, 5] with the iterator at 2, splice [3, 4]
+     * -> [1, 2, 3, 4, 5] and []
+     * @param list the list whose nodes to move
+     * @precondition iterator is not off end, list != null, list != this
+     * @throws NullPointerException when the iterator is off end or list
+     * is null
+     * @throws IllegalArgumentException when list is this list
+     */
+    public void splice(LinkedList<T> list) throws NullPointerException, IllegalArgumentException {
+        if (iterator == null) {
+            throw new NullPointerException("Iterator is off end.");
+        }
+        if (list == null) {
+            throw new NullPointerException("List cannot be null");
+        }
+        if (list == this) {
+            throw new IllegalArgumentException("Cannot splice a list into itself");
+        }
+        if (list.length == 0) {
+            return;
+        }
+        if (iterator == last) {
+            last = list.last;
+        } else {
+            list.last.next = iterator.next;
+            iterator.next.prev = list.last;
+        }
+        iterator.next = list.first;
+        list.first.prev = iterator;
+        length += list.length;
+        modCount++;
+        list.clear();
+    }
+
+    /**
+     * Cuts this list in two at the given index, relinking rather than
+     * copying: this list keeps the values before index, and the rest move
+     * to a new list, in order. The cut is found by walking from whichever
+     * end of the list is nearer. If the iterator referenced a moved node,
+     * it goes off end.
+     * For example: [1, 2, 3, 4, 5] splitAt 2 -> [1, 2] and returns [3, 4, 5]
+     * @param index the index of the first value to move
+     * @precondition 0 <= index <= length
+     * @return a new list holding the values from index on
+     * @throws IndexOutOfBoundsException when the precondition is violated
+     */
+    public LinkedList<T> splitAt(int index) throws IndexOutOfBoundsException {
+        if (index < 0 || index > length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        LinkedList<T> rest = new LinkedList<>();
+        if (index == length) {
+            return rest;
+        }
+        Node cut; // the first node to move
+        if (index < length / 2) {
+            cut = first;
+            for (int i = 0; i < index; i++) {
+                cut = cut.next;
             }
-            if (listCurrent != null) {
-                result.addLast(listCurrent.data);
-                listCurrent = listCurrent.next;
+        } else {
+            cut = last;
+            for (int i = length - 1; i > index; i--) {
+                cut = cut.prev;
             }
         }
-        return result;
+        if (iterator != null) {
+            // Look for the iterator only on the side already walked,
+            // so the check costs no more than finding the cut
+            boolean moved = index < length / 2;
+            Node stop = moved ? cut : null;
+            for (Node node = moved ? first : cut; node != stop; node = node.next) {
+                if (node == iterator) {
+                    moved = !moved;
+                    break;
+                }
+            }
+            if (moved) {
+                iterator = null;
+            }
+        }
+        rest.first = cut;
+        rest.last = last;
+        rest.length = length - index;
+        last = cut.prev;
+        if (last == null) {
+            first = null;
+        } else {
+            last.next = null;
+        }
+        cut.prev = null;
+        length = index;
+        modCount++;
+        return rest;
     }
      /** MORE METHODS */
     /**
@@ -514,9 +876,100 @@ public class LinkedList<T> {
         return -1;
     }
 
+    /**
+     * Searches the LinkedList for an element equal to the given data,
+     * without moving the iterator.
+     * @param data the data to locate.
+     * @return the element stored in the LinkedList that equals data,
+     * or null if there is none.
+     */
+    public T search(T data) {
+        Node current = first;
+        while (current != null) {
+            if ((data == null && current.data == null) ||
+                (data != null && data.equals(current.data))) {
+                return current.data;
+            }
+            current = current.next;
+        }
+        return null;
+    }
+
+    /**
+     * Performs the given action on each element in order, without moving
+     * the iterator, so several threads may traverse the same LinkedList
+     * as long as none of them changes it.
+     * @param action the action to perform on each element
+     * @throws NullPointerException when action is null
+     */
+    public void forEach(Consumer<? super T> action) throws NullPointerException {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        for (Node current = first; current != null; current = current.next) {
+            action.accept(current.data);
+        }
+    }
+
+    /**
+     * Removes the first element equal to the given data in one pass.
+     * The iterator is only changed if it referenced the removed node,
+     * in which case it goes off end.
+     * @param data the data to remove.
+     * @return whether an element was removed.
+     */
+    public boolean remove(T data) {
+        Node current = first;
+        while (current != null) {
+            if ((data == null && current.data == null) ||
+                (data != null && data.equals(current.data))) {
+                unlink(current);
+                return true;
+            }
+            current = current.next;
+        }
+        return false;
+    }
+
+    /**
+     * Moves the first element equal to the given data to the front of
+     * the LinkedList by relinking its node. The iterator keeps referencing
+     * the same node.
+     * @param data the data to locate.
+     * @return the index the data had before the move or -1 if the data
+     * is not contained in the LinkedList.
+     */
+    public int moveToFront(T data) {
+        Node current = first;
+        int index = 0;
+        while (current != null) {
+            if ((data == null && current.data == null) ||
+                (data != null && data.equals(current.data))) {
+                if (current != first) {
+                    current.prev.next = current.next;
+                    if (current == last) {
+                        last = current.prev;
+                    } else {
+                        current.next.prev = current.prev;
+                    }
+                    current.prev = null;
+                    current.next = first;
+                    first.prev = current;
+                    first = current;
+                    modCount++;
+                }
+                return index;
+            }
+            current = current.next;
+            index++;
+        }
+        return -1;
+    }
+
     /**
      * Advances the iterator to location within the LinkedList
-     * specified by the given index.
+     * specified by the given index, walking from whichever end
+     * of the list is nearer.
      * @param index the index at which to place the iterator.
      * @precondition index >= 0, index < length
      * @throws IndexOutOfBoundsException when the index is out of bounds
@@ -525,11 +978,16 @@ public class LinkedList<T> {
         if (index < 0 || index >= length) {
             throw new IndexOutOfBoundsException("Index out of bounds");
         }
-    
-        positionIterator(); // Start from the beginning
-        
-        for (int i = 0; i < index; i++) {
-            advanceIterator();
+        if (index < length / 2) {
+            iterator = first;
+            for (int i = 0; i < index; i++) {
+                iterator = iterator.next;
+            }
+        } else {
+            iterator = last;
+            for (int i = length - 1; i > index; i--) {
+                iterator = iterator.prev;
+            }
         }
     }
 }
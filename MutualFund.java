@@ -159,17 +159,12 @@ public String toString() {
 
     /**
      * Returns a consistent hash code for
-     * each MutualFund by summing the Unicode values
-     * of each character in the key
+     * each MutualFund by hashing the key
      * Key = ticker
      * @return the hash code
      */
     @Override
     public int hashCode() {
-        int sum = 0;
-        for (int i = 0; i < ticker.length(); i++) {
-            sum += (int) ticker.charAt(i);
-        }
-        return sum;
+        return Hashing.hashString(ticker);
     }
 }
\ No newline at end of file
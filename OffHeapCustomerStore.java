@@ -0,0 +1,584 @@
+/**
+ * OffHeapCustomerStore.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+
+/**
+ * Keeps customers outside the Java heap, so that neither the heap nor the
+ * garbage collector's work grows with the number of customers.
+ *
+ * Each customer is one fixed-layout record in a chunk of direct memory:
+ * length-prefixed UTF-8 email, password and names, the account number,
+ * the cash, and a fixed number of holding slots. A holding is the ordinal
+ * of a fund in the store's fund catalog plus a share count, so records
+ * never point at heap objects. Emails are indexed by a linear-probing
+ * table that also lives in direct memory and compares the stored bytes
+ * without creating Strings.
+ *
+ * The operations mirror those CustomerInterface performs on a Customer.
+ * getCustomer builds a Customer from a record only when one is needed;
+ * it is a copy, so changes must go through the store.
+ */
+public class OffHeapCustomerStore {
+    private static final int CHUNK_BYTES = 1 << 22;
+    private static final int EMAIL = 0;
+    private static final int EMAIL_BYTES = 64;
+    private static final int PASSWORD = EMAIL + EMAIL_BYTES;
+    private static final int PASSWORD_BYTES = 32;
+    private static final int FIRST_NAME = PASSWORD + PASSWORD_BYTES;
+    private static final int NAME_BYTES = 32;
+    private static final int LAST_NAME = FIRST_NAME + NAME_BYTES;
+    private static final int ACCOUNT_NUM = LAST_NAME + NAME_BYTES;
+    private static final int CASH = ACCOUNT_NUM + 8; // keeps cash 8-byte aligned
+    private static final int HOLDINGS = CASH + 8;
+    private static final int HOLDING_BYTES = 16; // int ordinal, padding, double shares
+    private static final int EMPTY = -1; // ordinal of an unused holding slot
+
+    private final int maxHoldings;
+    private final int recordSize;
+    private final int recordsPerChunk;
+    private final ArrayList<ByteBuffer> chunks = new ArrayList<ByteBuffer>();
+    private int numCustomers;
+
+    private ByteBuffer index; // slots of (int hash, int record + 1), 0 marking a free slot
+    private int indexSlots;
+
+    private final ArrayList<MutualFund> catalog = new ArrayList<MutualFund>();
+    private final HashMap<String, Integer> ordinals = new HashMap<String, Integer>(16);
+
+    /**
+     * Constructor for the OffHeapCustomerStore class.
+     * @param maxHoldings the most funds one customer can hold
+     * @precondition maxHoldings > 0
+     * @throws IllegalArgumentException when maxHoldings <= 0
+     */
+    public OffHeapCustomerStore(int maxHoldings) throws IllegalArgumentException {
+        if (maxHoldings <= 0) {
+            throw new IllegalArgumentException("Max holdings must be greater than 0");
+        }
+        this.maxHoldings = maxHoldings;
+        this.recordSize = HOLDINGS + maxHoldings * HOLDING_BYTES;
+        this.recordsPerChunk = Math.max(1, CHUNK_BYTES / recordSize);
+        indexSlots = 16;
+        index = allocate(indexSlots * 8);
+    }
+
+    /**
+     * Allocates zeroed direct memory.
+     * @param bytes the number of bytes
+     * @return the buffer
+     */
+    private static ByteBuffer allocate(int bytes) {
+        return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+    }
+
+    /** Accessors */
+
+    /**
+     * Returns the number of customers in the store.
+     * @return the number of customers
+     */
+    public int getNumCustomers() {
+        return numCustomers;
+    }
+
+    /**
+     * Returns the number of bytes of direct memory held by the store.
+     * @return the off-heap size in bytes
+     */
+    public long getOffHeapBytes() {
+        return (long) chunks.size() * recordsPerChunk * recordSize + (long) indexSlots * 8;
+    }
+
+    /**
+     * Accesses a fund of the catalog by its ticker.
+     * @param ticker the ticker symbol
+     * @return the fund, or null if it is not in the catalog
+     */
+    public MutualFund getFund(String ticker) {
+        Integer ordinal = ordinals.get(ticker);
+        return ordinal == null ? null : catalog.get(ordinal);
+    }
+
+    /**
+     * Determines whether a customer with this email is in the store.
+     * @param email the email to locate
+     * @return whether the customer is in the store
+     * @precondition email != null
+     * @throws NullPointerException when the precondition is violated
+     */
+    public boolean contains(String email) throws NullPointerException {
+        return recordOf(email) != -1;
+    }
+
+    /**
+     * Determines whether a given password matches the customer password.
+     * @param email the customer email
+     * @param password the password to compare
+     * @return whether the customer exists and the passwords match
+     * @precondition email != null, password != null
+     * @throws NullPointerException when the precondition is violated
+     */
+    public boolean passwordMatch(String email, String password) throws NullPointerException {
+        if (password == null) {
+            throw new NullPointerException("Password cannot be null");
+        }
+        int record = recordOf(email);
+        return record != -1 && fieldEquals(record, PASSWORD, password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Accesses the amount of cash of a customer.
+     * @param email the customer email
+     * @return the amount of cash
+     * @precondition email != null and the customer is in the store
+     * @throws NoSuchElementException when there is no such customer
+     */
+    public double getCash(String email) throws NoSuchElementException {
+        int record = require(email);
+        return chunkOf(record).getDouble(offsetOf(record) + CASH);
+    }
+
+    /**
+     * Accesses the number of shares a customer holds of a fund.
+     * @param email the customer email
+     * @param fundName the name of the fund
+     * @return the number of shares, 0 if the customer has no such account
+     * @precondition email != null and the customer is in the store
+     * @throws NoSuchElementException when there is no such customer
+     */
+    public double getNumShares(String email, String fundName) throws NoSuchElementException {
+        int record = require(email);
+        int slot = slotOf(record, fundName);
+        return slot == -1 ? 0 : chunkOf(record).getDouble(holdingAt(record, slot) + 8);
+    }
+
+    /**
+     * Accesses whether any accounts exist for a customer.
+     * @param email the customer email
+     * @return whether the customer currently holds any accounts
+     * @precondition email != null and the customer is in the store
+     * @throws NoSuchElementException when there is no such customer
+     */
+    public boolean hasOpenAccounts(String email) throws NoSuchElementException {
+        int record = require(email);
+        for (int slot = 0; slot < maxHoldings; slot++) {
+            if (chunkOf(record).getInt(holdingAt(record, slot)) != EMPTY) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds a Customer from the stored record. The Customer is a copy:
+     * changing it does not change the store.
+     * @param email the customer email
+     * @return the Customer, or null if there is no such customer
+     * @precondition email != null
+     * @throws NullPointerException when the precondition is violated
+     */
+    public Customer getCustomer(String email) throws NullPointerException {
+        int record = recordOf(email);
+        if (record == -1) {
+            return null;
+        }
+        ByteBuffer chunk = chunkOf(record);
+        int offset = offsetOf(record);
+        ArrayList<MutualFundAccount> accounts = new ArrayList<MutualFundAccount>();
+        for (int slot = 0; slot < maxHoldings; slot++) {
+            int at = holdingAt(record, slot);
+            if (chunk.getInt(at) != EMPTY) {
+                accounts.add(new MutualFundAccount(chunk.getDouble(at + 8), catalog.get(chunk.getInt(at))));
+            }
+        }
+        return new Customer(getString(record, FIRST_NAME), getString(record, LAST_NAME),
+                getString(record, EMAIL), getString(record, PASSWORD),
+                String.valueOf(chunk.getInt(offset + ACCOUNT_NUM)), chunk.getDouble(offset + CASH), accounts);
+    }
+
+    /**
+     * Returns the record holding a customer.
+     * @param email the customer email
+     * @return the record number or -1 if it is not found
+     * @throws NullPointerException when email is null
+     */
+    private int recordOf(String email) throws NullPointerException {
+        if (email == null) {
+            throw new NullPointerException("Email cannot be null");
+        }
+        byte[] key = email.getBytes(StandardCharsets.UTF_8);
+        int h = Hashing.hashString(email);
+        int mask = indexSlots - 1;
+        for (int slot = h & mask; ; slot = (slot + 1) & mask) {
+            int record = index.getInt(slot * 8 + 4) - 1;
+            if (record == -1) {
+                return -1;
+            }
+            if (index.getInt(slot * 8) == h && fieldEquals(record, EMAIL, key)) {
+                return record;
+            }
+        }
+    }
+
+    /**
+     * Returns the record holding a customer that must exist.
+     * @param email the customer email
+     * @return the record number
+     * @throws NoSuchElementException when there is no such customer
+     */
+    private int require(String email) throws NoSuchElementException {
+        int record = recordOf(email);
+        if (record == -1) {
+            throw new NoSuchElementException("No customer with email " + email);
+        }
+        return record;
+    }
+
+    /**
+     * Returns the holding slot of a record that holds the named fund.
+     * @param record the record number
+     * @param fundName the name of the fund
+     * @return the slot or -1 if the fund is not held
+     */
+    private int slotOf(int record, String fundName) {
+        ByteBuffer chunk = chunkOf(record);
+        for (int slot = 0; slot < maxHoldings; slot++) {
+            int ordinal = chunk.getInt(holdingAt(record, slot));
+            if (ordinal != EMPTY && catalog.get(ordinal).getFundName().equals(fundName)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the chunk of direct memory holding a record.
+     * @param record the record number
+     * @return the chunk
+     */
+    private ByteBuffer chunkOf(int record) {
+        return chunks.get(record / recordsPerChunk);
+    }
+
+    /**
+     * Returns the offset of a record in its chunk.
+     * @param record the record number
+     * @return the offset in bytes
+     */
+    private int offsetOf(int record) {
+        return (record % recordsPerChunk) * recordSize;
+    }
+
+    /**
+     * Returns the offset of a holding slot in its record's chunk.
+     * @param record the record number
+     * @param slot the holding slot
+     * @return the offset in bytes
+     */
+    private int holdingAt(int record, int slot) {
+        return offsetOf(record) + HOLDINGS + slot * HOLDING_BYTES;
+    }
+
+    /**
+     * Reads a String field of a record.
+     * @param record the record number
+     * @param field the offset of the field in the record
+     * @return the String
+     */
+    private String getString(int record, int field) {
+        ByteBuffer chunk = chunkOf(record);
+        int at = offsetOf(record) + field;
+        byte[] bytes = new byte[chunk.get(at) & 0xff];
+        chunk.get(at + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares a String field of a record with encoded bytes.
+     * @param record the record number
+     * @param field the offset of the field in the record
+     * @param bytes the UTF-8 bytes to compare with
+     * @return whether the field holds exactly these bytes
+     */
+    private boolean fieldEquals(int record, int field, byte[] bytes) {
+        ByteBuffer chunk = chunkOf(record);
+        int at = offsetOf(record) + field;
+        if ((chunk.get(at) & 0xff) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (chunk.get(at + 1 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Mutators */
+
+    /**
+     * Adds a fund to the catalog, so customers can hold it.
+     * @param mf the fund
+     * @return the fund's ordinal in the catalog
+     * @precondition mf != null
+     * @throws NullPointerException when the precondition is violated
+     */
+    public int registerFund(MutualFund mf) throws NullPointerException {
+        if (mf == null) {
+            throw new NullPointerException("Fund cannot be null");
+        }
+        Integer ordinal = ordinals.get(mf.getTicker());
+        if (ordinal == null) {
+            ordinal = catalog.size();
+            catalog.add(mf);
+            ordinals.put(mf.getTicker(), ordinal);
+        }
+        return ordinal;
+    }
+
+    /**
+     * Adds a new customer with no holdings and a new account number.
+     * @param firstName member first name
+     * @param lastName member last name
+     * @param email the Customer email
+     * @param password the Customer password
+     * @param cash the starting amount of cash
+     * @return whether the customer was added, false if the email is taken
+     * @precondition no argument is null, and each String fits its field:
+     * 63 UTF-8 bytes for the email and 31 for the others
+     * @throws NullPointerException when an argument is null
+     * @throws IllegalArgumentException when a String is too long
+     */
+    public boolean add(String firstName, String lastName, String email, String password, double cash)
+            throws NullPointerException, IllegalArgumentException {
+        byte[] first = encode(firstName, NAME_BYTES, "First name");
+        byte[] last = encode(lastName, NAME_BYTES, "Last name");
+        byte[] mail = encode(email, EMAIL_BYTES, "Email");
+        byte[] pass = encode(password, PASSWORD_BYTES, "Password");
+        if (recordOf(email) != -1) {
+            return false;
+        }
+        int record = numCustomers;
+        if (record / recordsPerChunk == chunks.size()) {
+            chunks.add(allocate(recordsPerChunk * recordSize));
+        }
+        putString(record, EMAIL, mail);
+        putString(record, PASSWORD, pass);
+        putString(record, FIRST_NAME, first);
+        putString(record, LAST_NAME, last);
+        ByteBuffer chunk = chunkOf(record);
+        int offset = offsetOf(record);
+        chunk.putInt(offset + ACCOUNT_NUM, MutualFundAccount.getAccountSeed());
+        chunk.putDouble(offset + CASH, cash);
+        for (int slot = 0; slot < maxHoldings; slot++) {
+            chunk.putInt(holdingAt(record, slot), EMPTY);
+        }
+        numCustomers++;
+        if (numCustomers * 2 > indexSlots) {
+            growIndex();
+        }
+        indexInsert(Hashing.hashString(email), record);
+        return true;
+    }
+
+    /**
+     * Gives a customer shares of a catalog fund without charging for them,
+     * as when loading existing accounts.
+     * @param email the customer email
+     * @param ticker the ticker of a registered fund
+     * @param shares the number of shares
+     * @return whether the shares were added, false if the fund is not in
+     * the catalog or every holding slot is taken
+     * @precondition email != null and the customer is in the store
+     * @throws NoSuchElementException when there is no such customer
+     */
+    public boolean addHolding(String email, String ticker, double shares) throws NoSuchElementException {
+        int record = require(email);
+        Integer ordinal = ordinals.get(ticker);
+        return ordinal != null && addShares(record, ordinal, shares);
+    }
+
+    /**
+     * Increases/Decreases the amount of cash of a customer, never
+     * going below 0.
+     * @param email the customer email
+     * @param cash the amount of cash to add
+     * @precondition email != null and the customer is in the store
+     * @throws NoSuchElementException when there is no such customer
+     */
+    public void updateCash(String email, double cash) throws NoSuchElementException {
+        int record = require(email);
+        int at = offsetOf(record) + CASH;
+        chunkOf(record).putDouble(at, Math.max(chunkOf(record).getDouble(at) + cash, 0.0));
+    }
+
+    /**
+     * Buys shares of a fund for a customer, as Customer.addFund does.
+     * @param email the customer email
+     * @param shares the desired number of shares
+     * @param mf a fund, which is added to the catalog if needed
+     * @return whether the fund was added to the customer's account
+     * - i.e. the customer had enough cash and a free holding slot
+     * @precondition email != null and the customer is in the store
+     * @throws NoSuchElementException when there is no such customer
+     */
+    public boolean addFund(String email, double shares, MutualFund mf) throws NoSuchElementException {
+        int record = require(email);
+        if (shares <= 0 || mf == null) {
+            return false;
+        }
+        double totalCost = shares * mf.getPricePerShare();
+        ByteBuffer chunk = chunkOf(record);
+        int at = offsetOf(record) + CASH;
+        if (totalCost > chunk.getDouble(at)) {
+            return false;
+        }
+        if (!addShares(record, registerFund(mf), shares)) {
+            return false;
+        }
+        chunk.putDouble(at, Math.max(chunk.getDouble(at) - totalCost, 0.0));
+        return true;
+    }
+
+    /**
+     * Sells shares of a fund for a customer, as Customer.sellShares does:
+     * the price of the shares minus the trading fee goes to cash, and the
+     * account is closed once no shares are left.
+     * @param email the customer email
+     * @param fundName the name of the fund
+     * @param shares the number of shares to sell
+     * @precondition email != null and the customer is in the store
+     * @throws NoSuchElementException when there is no such customer
+     * or the customer does not hold the fund
+     * @throws IllegalArgumentException when shares is more than the
+     * customer holds
+     */
+    public void sellShares(String email, String fundName, double shares)
+            throws NoSuchElementException, IllegalArgumentException {
+        int record = require(email);
+        int slot = slotOf(record, fundName);
+        if (slot == -1) {
+            throw new NoSuchElementException("Fund not found.");
+        }
+        ByteBuffer chunk = chunkOf(record);
+        int at = holdingAt(record, slot);
+        double held = chunk.getDouble(at + 8);
+        if (shares > held) {
+            throw new IllegalArgumentException("Insufficient shares to sell.");
+        }
+        MutualFund mf = catalog.get(chunk.getInt(at));
+        double saleValue = shares * mf.getPricePerShare();
+        double fee = saleValue * (mf.getTradingFee() / 100.0);
+        int cash = offsetOf(record) + CASH;
+        chunk.putDouble(cash, chunk.getDouble(cash) + (saleValue - fee));
+        if (held - shares == 0) {
+            chunk.putInt(at, EMPTY);
+        } else {
+            chunk.putDouble(at + 8, held - shares);
+        }
+    }
+
+    /**
+     * Adds shares of a catalog fund to a record, opening a holding if the
+     * fund is not held yet.
+     * @param record the record number
+     * @param ordinal the fund's ordinal in the catalog
+     * @param shares the number of shares
+     * @return whether the shares were added, false if a new holding was
+     * needed and every slot is taken
+     */
+    private boolean addShares(int record, int ordinal, double shares) {
+        ByteBuffer chunk = chunkOf(record);
+        int free = -1;
+        for (int slot = 0; slot < maxHoldings; slot++) {
+            int at = holdingAt(record, slot);
+            int held = chunk.getInt(at);
+            if (held == ordinal) {
+                chunk.putDouble(at + 8, chunk.getDouble(at + 8) + shares);
+                return true;
+            }
+            if (held == EMPTY && free == -1) {
+                free = at;
+            }
+        }
+        if (free == -1) {
+            return false;
+        }
+        chunk.putInt(free, ordinal);
+        chunk.putDouble(free + 8, shares);
+        return true;
+    }
+
+    /**
+     * Encodes a String for a field, checking that it fits.
+     * @param s the String
+     * @param capacity the field size, including the length byte
+     * @param what the name of the field, for error messages
+     * @return the UTF-8 bytes
+     * @throws NullPointerException when s is null
+     * @throws IllegalArgumentException when s does not fit
+     */
+    private static byte[] encode(String s, int capacity, String what)
+            throws NullPointerException, IllegalArgumentException {
+        if (s == null) {
+            throw new NullPointerException(what + " cannot be null");
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= capacity) {
+            throw new IllegalArgumentException(what + " cannot be longer than "
+                    + (capacity - 1) + " bytes");
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes a String field of a record.
+     * @param record the record number
+     * @param field the offset of the field in the record
+     * @param bytes the encoded String
+     */
+    private void putString(int record, int field, byte[] bytes) {
+        ByteBuffer chunk = chunkOf(record);
+        int at = offsetOf(record) + field;
+        chunk.put(at, (byte) bytes.length);
+        chunk.put(at + 1, bytes);
+    }
+
+    /**
+     * Places a record in the first free index slot after its home slot.
+     * @param h the hash of the record's email
+     * @param record the record number
+     */
+    private void indexInsert(int h, int record) {
+        int mask = indexSlots - 1;
+        int slot = h & mask;
+        while (index.getInt(slot * 8 + 4) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        index.putInt(slot * 8, h);
+        index.putInt(slot * 8 + 4, record + 1);
+    }
+
+    /**
+     * Doubles the email index, reinserting every entry.
+     */
+    private void growIndex() {
+        ByteBuffer old = index;
+        int oldSlots = indexSlots;
+        indexSlots *= 2;
+        index = allocate(indexSlots * 8);
+        for (int slot = 0; slot < oldSlots; slot++) {
+            int record = old.getInt(slot * 8 + 4);
+            if (record != 0) {
+                indexInsert(old.getInt(slot * 8), record - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,293 @@
+/**
+ * OpenHashTable.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+
+/**
+ * A HashTable that stores its elements in one flat array instead of
+ * chains of LinkedList nodes. Collisions are resolved with linear probing,
+ * and each element's hash code is cached in a parallel array so most
+ * probes never call equals.
+ * @param <T> the generic data stored in the table
+ */
+public class OpenHashTable<T> {
+    private static final double DEFAULT_MAX_LOAD_FACTOR = 0.5;
+
+    private int numElements;
+    private int[] hashes;
+    private Object[] elements; // null marks an empty slot
+    private final int initialSize;
+    private final double maxLoadFactor;
+
+    /**
+     * Constructor for the OpenHashTable class. Rounds size up to a power
+     * of two and grows once the table is half full.
+     * @param size the initial number of slots
+     * @precondition size > 0
+     * @throws IllegalArgumentException when size <= 0
+     */
+    public OpenHashTable(int size) throws IllegalArgumentException {
+        this(size, DEFAULT_MAX_LOAD_FACTOR);
+    }
+
+    /**
+     * Constructor for the OpenHashTable class. Rounds size up to a power
+     * of two and doubles the table once the load factor passes
+     * maxLoadFactor.
+     * @param size the initial number of slots
+     * @param maxLoadFactor the load factor after which the table grows
+     * @precondition size > 0, 0 < maxLoadFactor < 1
+     * @throws IllegalArgumentException when the precondition is violated
+     */
+    public OpenHashTable(int size, double maxLoadFactor) throws IllegalArgumentException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be greater than 0");
+        }
+        if (!(maxLoadFactor > 0 && maxLoadFactor < 1)) {
+            throw new IllegalArgumentException("Max load factor must be between 0 and 1");
+        }
+        this.initialSize = size;
+        this.maxLoadFactor = maxLoadFactor;
+        allocate(size);
+    }
+
+    /**
+     * Constructor for OpenHashTable class.
+     * Inserts the contents of the given array into the table.
+     * @param array an array of elements to insert
+     * @param size the initial number of slots
+     * @precondition size > 0
+     * @throws IllegalArgumentException when size <= 0
+     */
+    public OpenHashTable(T[] array, int size) throws IllegalArgumentException {
+        this(size);
+        if (array != null) {
+            for (T element : array) {
+                if (element != null) {
+                    add(element);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the arrays with empty ones of at least the given size.
+     * @param size the minimum number of slots
+     */
+    private void allocate(int size) {
+        int capacity = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+        hashes = new int[capacity];
+        elements = new Object[capacity];
+        numElements = 0;
+    }
+
+    /** Accessors */
+
+    /**
+     * Spreads the bits of an Object's hash code, since linear probing
+     * clusters badly on codes that only differ in their high bits.
+     * @param obj the Object
+     * @return the spread hash code
+     */
+    private static int spread(Object obj) {
+        return Hashing.mix(obj.hashCode());
+    }
+
+    /**
+     * Returns the slot at which the search for an element starts.
+     * @param h the spread hash code
+     * @return the index in the table
+     */
+    private int home(int h) {
+        return h & (elements.length - 1);
+    }
+
+    /**
+     * Returns the slot holding an element equal to elmt.
+     * @param elmt the element to locate
+     * @param h the spread hash code of elmt
+     * @return the slot index or -1 if it is not found
+     */
+    private int slotOf(T elmt, int h) {
+        int mask = elements.length - 1;
+        for (int i = home(h); elements[i] != null; i = (i + 1) & mask) {
+            if (hashes[i] == h && elements[i].equals(elmt)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of slots in the table.
+     * @return the number of slots
+     */
+    public int getTableSize() {
+        return elements.length;
+    }
+
+    /**
+     * Determines total number of elements in the table
+     * @return total number of elements
+     */
+    public int getNumElements() {
+        return numElements;
+    }
+
+    /**
+     * Accesses a specified element in the Table
+     * @param elmt the key to search for
+     * @return the element in the table equal to elmt,
+     * or null if this table contains no such element.
+     * @precondition elmt != null
+     * @throws NullPointerException when the precondition is violated.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(T elmt) throws NullPointerException {
+        int slot = find(elmt);
+        return slot == -1 ? null : (T) elements[slot];
+    }
+
+    /**
+     * Accesses a specified element in the table.
+     * @param elmt the element to locate
+     * @return the slot where the element
+     * is located or -1 if it is not found.
+     * @precondition elmt != null
+     * @throws NullPointerException when the precondition is violated.
+     */
+    public int find(T elmt) throws NullPointerException {
+        if (elmt == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        return slotOf(elmt, spread(elmt));
+    }
+
+    /**
+     * Determines whether a specified element is in the table.
+     * @param elmt the element to locate
+     * @return whether the element is in the table
+     * @precondition elmt != null
+     * @throws NullPointerException when the precondition is violated
+     */
+    public boolean contains(T elmt) throws NullPointerException {
+        return find(elmt) != -1;
+    }
+
+    /** Mutators */
+
+    /**
+     * Inserts a new element in the first free slot after its home slot.
+     * @param elmt the element to insert
+     * @precondition elmt != null
+     * @throws NullPointerException when the precondition is violated.
+     */
+    public void add(T elmt) throws NullPointerException {
+        if (elmt == null) {
+            throw new NullPointerException("Element cannot be null");
+        }
+        if (numElements + 1 > maxLoadFactor * elements.length) {
+            resize(elements.length * 2);
+        }
+        insert(elmt, spread(elmt));
+        numElements++;
+    }
+
+    /**
+     * Places an element in the first free slot after its home slot.
+     * @param elmt the element to insert
+     * @param h the spread hash code of elmt
+     */
+    private void insert(Object elmt, int h) {
+        int mask = elements.length - 1;
+        int i = home(h);
+        while (elements[i] != null) {
+            i = (i + 1) & mask;
+        }
+        hashes[i] = h;
+        elements[i] = elmt;
+    }
+
+    /**
+     * Moves every element into new arrays of the given size.
+     * @param size the new number of slots
+     */
+    private void resize(int size) {
+        int[] oldHashes = hashes;
+        Object[] oldElements = elements;
+        hashes = new int[size];
+        elements = new Object[size];
+        for (int i = 0; i < oldElements.length; i++) {
+            if (oldElements[i] != null) {
+                insert(oldElements[i], oldHashes[i]);
+            }
+        }
+    }
+
+    /**
+     * Removes the given element from the table. Later elements of the same
+     * probe run are shifted back, so no tombstones are left behind.
+     * @param elmt the element to remove
+     * @precondition elmt != null
+     * @return whether elmt exists and was removed from the table
+     * @throws NullPointerException when the precondition is violated
+     */
+    public boolean delete(T elmt) throws NullPointerException {
+        int hole = find(elmt);
+        if (hole == -1) {
+            return false;
+        }
+        int mask = elements.length - 1;
+        int i = (hole + 1) & mask;
+        while (elements[i] != null) {
+            // An element may fill the hole only if the hole lies
+            // on its probe path, i.e. between its home slot and i.
+            int distance = (i - home(hashes[i])) & mask;
+            if (((i - hole) & mask) <= distance) {
+                hashes[hole] = hashes[i];
+                elements[hole] = elements[i];
+                hole = i;
+            }
+            i = (i + 1) & mask;
+        }
+        elements[hole] = null;
+        numElements--;
+        return true;
+    }
+
+    /**
+     * Resets the hash table back to the empty state, as if the
+     * constructor has just been called.
+     */
+    public void clear() {
+        allocate(initialSize);
+    }
+
+    /** Additional Methods */
+
+    /**
+     * Computes the load factor.
+     * @return the load factor
+     */
+    public double getLoadFactor() {
+        return (double) numElements / elements.length;
+    }
+
+    /**
+     * Concatenates all elements in slot order into one String, each
+     * followed by a space, with a new line at the end.
+     * @return a String of all elements in this OpenHashTable.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Object elmt : elements) {
+            if (elmt != null) {
+                sb.append(elmt).append(" ");
+            }
+        }
+        sb.append("\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,429 @@
+/**
+ * PersistentBST.java
+ * @author Minh Long Hang
+ * CIS 22C, Applied Lab 4
+ */
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A balanced (AVL) binary search tree whose nodes never change once
+ * built. insert and remove copy only the path from the root to the change
+ * and publish the new root with a compare-and-set, so writers never lock.
+ * A Snapshot is just a root, taken in O(1): it keeps seeing the same
+ * values however the tree changes afterwards, and any number of threads
+ * can read it without locks.
+ *
+ * The Comparator is given at construction and must not change the values
+ * it compares, since a writer that loses a race runs it again.
+ * @param <T> the generic data stored in the tree
+ */
+public class PersistentBST<T> implements Iterable<T> {
+    private static final class Node<T> {
+        private final T data;
+        private final Node<T> left;
+        private final Node<T> right;
+        private final int height; // edges on the longest path down to a leaf
+        private final int size; // nodes in the subtree rooted here
+
+        public Node(T data, Node<T> left, Node<T> right) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(height(left), height(right));
+            this.size = 1 + size(left) + size(right);
+        }
+    }
+
+    /**
+     * A consistent, unchanging view of the tree at the moment it was taken.
+     * @param <T> the generic data stored in the tree
+     */
+    public static final class Snapshot<T> implements Iterable<T> {
+        private final Node<T> root;
+        private final Comparator<T> order;
+
+        private Snapshot(Node<T> root, Comparator<T> order) {
+            this.root = root;
+            this.order = order;
+        }
+
+        /**
+         * Determines whether the snapshot is empty.
+         * @return whether the snapshot holds no values.
+         */
+        public boolean isEmpty() {
+            return root == null;
+        }
+
+        /**
+         * Returns the number of values in the snapshot.
+         * @return the size of the snapshot.
+         */
+        public int getSize() {
+            return size(root);
+        }
+
+        /**
+         * Returns the height of the snapshot's tree by counting edges.
+         * @return the height, -1 when it is empty.
+         */
+        public int getHeight() {
+            return height(root);
+        }
+
+        /**
+         * Returns the smallest value in the snapshot.
+         * @precondition !isEmpty()
+         * @return the smallest value.
+         * @throws NoSuchElementException when the precondition is violated.
+         */
+        public T findMin() throws NoSuchElementException {
+            if (root == null) {
+                throw new NoSuchElementException("Tree is empty.");
+            }
+            return min(root);
+        }
+
+        /**
+         * Returns the largest value in the snapshot.
+         * @precondition !isEmpty()
+         * @return the largest value.
+         * @throws NoSuchElementException when the precondition is violated.
+         */
+        public T findMax() throws NoSuchElementException {
+            if (root == null) {
+                throw new NoSuchElementException("Tree is empty.");
+            }
+            Node<T> node = root;
+            while (node.right != null) {
+                node = node.right;
+            }
+            return node.data;
+        }
+
+        /**
+         * Searches for a specified value in the snapshot.
+         * @param data the value to search for.
+         * @return the data stored in that Node of the tree, otherwise null.
+         */
+        public T search(T data) {
+            Node<T> node = root;
+            while (node != null) {
+                int comparison = order.compare(data, node.data);
+                if (comparison == 0) {
+                    return node.data;
+                }
+                node = comparison < 0 ? node.left : node.right;
+            }
+            return null;
+        }
+
+        /**
+         * Returns an Iterator over the values from lo to hi, both included,
+         * in order, descending only into the subtrees that hold them.
+         * @param lo the smallest value wanted, or null for no lower bound.
+         * @param hi the largest value wanted, or null for no upper bound.
+         * @return an Iterator over the values in range.
+         */
+        public Iterator<T> range(T lo, T hi) {
+            return new RangeIterator<T>(root, order, lo, hi);
+        }
+
+        /**
+         * Returns an Iterator over all values in order.
+         * @return an Iterator over the snapshot.
+         */
+        @Override
+        public Iterator<T> iterator() {
+            return range(null, null);
+        }
+
+        /**
+         * Returns a String containing the data in order, each value
+         * followed by a new line, as BST.inOrderString does.
+         * @return a String of data in order.
+         */
+        public String inOrderString() {
+            StringBuilder inOrder = new StringBuilder();
+            for (T data : this) {
+                inOrder.append(data).append("\n");
+            }
+            return inOrder.toString();
+        }
+    }
+
+    /**
+     * Visits the values of a tree between two bounds in order, keeping a
+     * stack of the leftmost path of what remains.
+     */
+    private static final class RangeIterator<T> implements Iterator<T> {
+        private final ArrayList<Node<T>> stack = new ArrayList<Node<T>>();
+        private final Comparator<T> order;
+        private final T hi;
+
+        public RangeIterator(Node<T> root, Comparator<T> order, T lo, T hi) {
+            this.order = order;
+            this.hi = hi;
+            Node<T> node = root;
+            while (node != null) {
+                if (lo != null && order.compare(node.data, lo) < 0) {
+                    node = node.right;
+                } else {
+                    stack.add(node);
+                    node = node.left;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty()
+                    && (hi == null || order.compare(stack.get(stack.size() - 1).data, hi) <= 0);
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more values in range.");
+            }
+            Node<T> node = stack.remove(stack.size() - 1);
+            for (Node<T> next = node.right; next != null; next = next.left) {
+                stack.add(next);
+            }
+            return node.data;
+        }
+    }
+
+    private final AtomicReference<Node<T>> root = new AtomicReference<Node<T>>();
+    private final Comparator<T> order;
+
+    /***CONSTRUCTORS***/
+
+    /**
+     * Constructor for an empty PersistentBST.
+     * @param order the way the tree is organized.
+     * @precondition order != null
+     * @throws NullPointerException when the precondition is violated.
+     */
+    public PersistentBST(Comparator<T> order) throws NullPointerException {
+        if (order == null) {
+            throw new NullPointerException("Comparator cannot be null");
+        }
+        this.order = order;
+    }
+
+    /***ACCESSORS***/
+
+    /**
+     * Returns a view of the tree as it is now, in O(1).
+     * @return the snapshot.
+     */
+    public Snapshot<T> snapshot() {
+        return new Snapshot<T>(root.get(), order);
+    }
+
+    /**
+     * Determines whether the tree is empty.
+     * @return whether the tree is empty.
+     */
+    public boolean isEmpty() {
+        return root.get() == null;
+    }
+
+    /**
+     * Returns the current size of the tree (number of nodes).
+     * @return the size of the tree.
+     */
+    public int getSize() {
+        return size(root.get());
+    }
+
+    /**
+     * Searches for a specified value in the current tree.
+     * @param data the value to search for.
+     * @return the data stored in that Node of the tree, otherwise null.
+     */
+    public T search(T data) {
+        return snapshot().search(data);
+    }
+
+    /**
+     * Returns an Iterator over a snapshot of the tree, in order. Changes
+     * made after this call are not seen.
+     * @return an Iterator over the values.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    /**
+     * Returns the height stored in a node.
+     * @param node the node, possibly null.
+     * @return the height of the subtree, -1 when it is empty.
+     */
+    private static int height(Node<?> node) {
+        return node == null ? -1 : node.height;
+    }
+
+    /**
+     * Returns the size stored in a node.
+     * @param node the node, possibly null.
+     * @return the number of nodes in the subtree, 0 when it is empty.
+     */
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns the smallest value of a subtree.
+     * @param node the root of the subtree, not null.
+     * @return the smallest value.
+     */
+    private static <T> T min(Node<T> node) {
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.data;
+    }
+
+    /***MUTATORS***/
+
+    /**
+     * Inserts a new value in the tree. Duplicates are not inserted.
+     * @param data the data to insert.
+     * @return whether the tree changed.
+     */
+    public boolean insert(T data) {
+        while (true) {
+            Node<T> current = root.get();
+            Node<T> updated = insert(current, data);
+            if (updated == current) {
+                return false;
+            }
+            if (root.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes a value from the tree.
+     * @param data the value to remove.
+     * @return whether the tree changed.
+     */
+    public boolean remove(T data) {
+        while (true) {
+            Node<T> current = root.get();
+            Node<T> updated = remove(current, data);
+            if (updated == current) {
+                return false;
+            }
+            if (root.compareAndSet(current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Resets the tree to the empty state. Snapshots already taken
+     * are unaffected.
+     */
+    public void clear() {
+        root.set(null);
+    }
+
+    /**
+     * Helper method to insert. Recursion is bounded by the height,
+     * which is O(log n).
+     * @param node the root of the subtree.
+     * @param data the data to insert.
+     * @return the new root of the subtree, or node itself if data is
+     * already there.
+     */
+    private Node<T> insert(Node<T> node, T data) {
+        if (node == null) {
+            return new Node<T>(data, null, null);
+        }
+        int comparison = order.compare(data, node.data);
+        if (comparison < 0) {
+            Node<T> left = insert(node.left, data);
+            return left == node.left ? node : balance(node.data, left, node.right);
+        } else if (comparison > 0) {
+            Node<T> right = insert(node.right, data);
+            return right == node.right ? node : balance(node.data, node.left, right);
+        }
+        return node;
+    }
+
+    /**
+     * Helper method to remove.
+     * @param node the root of the subtree.
+     * @param data the data to remove.
+     * @return the new root of the subtree, or node itself if data is
+     * not there.
+     */
+    private Node<T> remove(Node<T> node, T data) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = order.compare(data, node.data);
+        if (comparison < 0) {
+            Node<T> left = remove(node.left, data);
+            return left == node.left ? node : balance(node.data, left, node.right);
+        } else if (comparison > 0) {
+            Node<T> right = remove(node.right, data);
+            return right == node.right ? node : balance(node.data, node.left, right);
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        return balance(min(node.right), node.left, removeMin(node.right));
+    }
+
+    /**
+     * Returns a copy of a subtree without its smallest value.
+     * @param node the root of the subtree, not null.
+     * @return the new root of the subtree.
+     */
+    private Node<T> removeMin(Node<T> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.data, removeMin(node.left), node.right);
+    }
+
+    /**
+     * Makes a node from a value and two AVL subtrees whose heights differ
+     * by at most two, rotating when they differ by two.
+     * @param data the value of the node.
+     * @param left the left subtree.
+     * @param right the right subtree.
+     * @return the root of the balanced subtree.
+     */
+    private static <T> Node<T> balance(T data, Node<T> left, Node<T> right) {
+        int diff = height(left) - height(right);
+        if (diff > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<T>(left.data, left.left, new Node<T>(data, left.right, right));
+            }
+            return new Node<T>(left.right.data, new Node<T>(left.data, left.left, left.right.left),
+                    new Node<T>(data, left.right.right, right));
+        }
+        if (diff < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<T>(right.data, new Node<T>(data, left, right.left), right.right);
+            }
+            return new Node<T>(right.left.data, new Node<T>(data, left, right.left.left),
+                    new Node<T>(right.data, right.left.right, right.right));
+        }
+        return new Node<T>(data, left, right);
+    }
+}
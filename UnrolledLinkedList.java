@@ -0,0 +1,472 @@
+/**
+ * Defines an unrolled doubly-linked list class, whose nodes each hold a
+ * small array of elements
+ * @author Minh Long Hang
+ */
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+public class UnrolledLinkedList<T> implements Iterable<T> {
+    private static final int DEFAULT_NODE_CAPACITY = 32;
+
+    private class Node {
+        private final Object[] items = new Object[nodeCapacity];
+        private int count; // items in use, always stored in items[0..count)
+        private Node next;
+        private Node prev;
+
+        @SuppressWarnings("unchecked")
+        public T get(int i) {
+            return (T) items[i];
+        }
+    }
+
+    /**
+     * An independent cursor from first to last. Changing the list other
+     * than through this cursor makes it throw a
+     * ConcurrentModificationException on its next use.
+     */
+    private class Cursor implements Iterator<T> {
+        private Node node = first;
+        private int index; // of the next element within node
+        private boolean canRemove;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return node != null && (index < node.count || node.next != null);
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (node != null && index == node.count) {
+                node = node.next;
+                index = 0;
+            }
+            if (node == null) {
+                throw new NoSuchElementException("Iterator is off end.");
+            }
+            canRemove = true;
+            return node.get(index++);
+        }
+
+        @Override
+        public void remove() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!canRemove) {
+                throw new IllegalStateException("next must be called first");
+            }
+            canRemove = false;
+            index--;
+            Node prev = node.prev;
+            int prevCount = prev == null ? 0 : prev.count;
+            if (removeAt(node, index)) {
+                // node was merged into prev or dropped; resume in prev
+                node = prev;
+                index += prevCount;
+                if (node == null) {
+                    node = first;
+                    index = 0;
+                }
+            }
+            expectedModCount = modCount;
+        }
+    }
+
+    private final int nodeCapacity;
+    private int length;
+    private Node first;
+    private Node last;
+    private int modCount; // number of structural changes, for the Cursors
+
+    /**** CONSTRUCTORS ****/
+
+    /**
+     * Instantiates a new UnrolledLinkedList holding up to 32 elements
+     * per node
+     * @postcondition A new empty UnrolledLinkedList is created
+     */
+    public UnrolledLinkedList() {
+        this(DEFAULT_NODE_CAPACITY);
+    }
+
+    /**
+     * Instantiates a new UnrolledLinkedList
+     * @param nodeCapacity the most elements a node may hold
+     * @precondition nodeCapacity >= 2
+     * @postcondition A new empty UnrolledLinkedList is created
+     * @throws IllegalArgumentException when nodeCapacity < 2
+     */
+    public UnrolledLinkedList(int nodeCapacity) throws IllegalArgumentException {
+        if (nodeCapacity < 2) {
+            throw new IllegalArgumentException("A node must hold at least 2 elements");
+        }
+        this.nodeCapacity = nodeCapacity;
+    }
+
+    /**
+     * Converts the given array into an UnrolledLinkedList
+     * @param array the array of values to insert into this list
+     * @postcondition The array elements are added to the list in order
+     */
+    public UnrolledLinkedList(T[] array) {
+        this();
+        if (array != null) {
+            for (T element : array) {
+                addLast(element);
+            }
+        }
+    }
+
+    /**
+     * Instantiates a new UnrolledLinkedList by copying another one,
+     * with the same node capacity
+     * @param original the UnrolledLinkedList to copy
+     * @postcondition a new list, which is an identical, but separate,
+     * copy of original
+     */
+    public UnrolledLinkedList(UnrolledLinkedList<T> original) {
+        this(original == null ? DEFAULT_NODE_CAPACITY : original.nodeCapacity);
+        if (original != null) {
+            for (Node node = original.first; node != null; node = node.next) {
+                for (int i = 0; i < node.count; i++) {
+                    addLast(node.get(i));
+                }
+            }
+        }
+    }
+
+    /**** ACCESSORS ****/
+
+    /**
+     * Returns the first value
+     * @precondition list must not be empty
+     * @return the first value
+     * @throws NoSuchElementException if the list is empty
+     */
+    public T getFirst() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The list is empty.");
+        }
+        return first.get(0);
+    }
+
+    /**
+     * Returns the last value
+     * @precondition list must not be empty
+     * @return the last value
+     * @throws NoSuchElementException if the list is empty
+     */
+    public T getLast() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The list is empty.");
+        }
+        return last.get(last.count - 1);
+    }
+
+    /**
+     * Returns the current length of the list
+     * @return the length of the list from 0 to n
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Returns whether the list is currently empty
+     * @return whether the list is empty
+     */
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    /**
+     * Searches the list for a given element's index.
+     * @param data the data whose index to locate.
+     * @return the index of the data or -1 if the data is not contained
+     * in the list.
+     */
+    public int findIndex(T data) {
+        int base = 0;
+        for (Node node = first; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                Object item = node.items[i];
+                if (data == null ? item == null : data.equals(item)) {
+                    return base + i;
+                }
+            }
+            base += node.count;
+        }
+        return -1;
+    }
+
+    /**
+     * Searches the list for an element equal to the given data.
+     * @param data the data to locate.
+     * @return the element stored in the list that equals data,
+     * or null if there is none.
+     */
+    public T search(T data) {
+        for (Node node = first; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                Object item = node.items[i];
+                if (data == null ? item == null : data.equals(item)) {
+                    return node.get(i);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns a new, independent Iterator over the list from first to last,
+     * whose remove unlinks the element it last returned.
+     * @return an Iterator over the elements
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Cursor();
+    }
+
+    /**
+     * Performs the given action on each element in order.
+     * @param action the action to perform on each element
+     * @throws NullPointerException when action is null
+     */
+    @Override
+    public void forEach(Consumer<? super T> action) throws NullPointerException {
+        if (action == null) {
+            throw new NullPointerException("Action cannot be null");
+        }
+        for (Node node = first; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                action.accept(node.get(i));
+            }
+        }
+    }
+
+    /**** MUTATORS ****/
+
+    /**
+     * Creates a new first element
+     * @param data the data to insert at the front of the list
+     * @postcondition A new element is added to the front of the list
+     */
+    public void addFirst(T data) {
+        if (first == null || first.count == nodeCapacity) {
+            linkFirst(new Node());
+        }
+        System.arraycopy(first.items, 0, first.items, 1, first.count);
+        first.items[0] = data;
+        first.count++;
+        length++;
+        modCount++;
+    }
+
+    /**
+     * Creates a new last element
+     * @param data the data to insert at the end of the list
+     * @postcondition A new element is added to the end of the list
+     */
+    public void addLast(T data) {
+        if (last == null || last.count == nodeCapacity) {
+            Node node = new Node();
+            if (last == null) {
+                first = node;
+            } else {
+                node.prev = last;
+                last.next = node;
+            }
+            last = node;
+        }
+        last.items[last.count++] = data;
+        length++;
+        modCount++;
+    }
+
+    /**
+     * Removes the element at the front of the list
+     * @precondition list must not be empty
+     * @postcondition The first element is removed from the list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public void removeFirst() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The list is empty.");
+        }
+        removeAt(first, 0);
+    }
+
+    /**
+     * Removes the element at the end of the list
+     * @precondition list must not be empty
+     * @postcondition The last element is removed from the list
+     * @throws NoSuchElementException if the list is empty
+     */
+    public void removeLast() throws NoSuchElementException {
+        if (length == 0) {
+            throw new NoSuchElementException("The list is empty.");
+        }
+        removeAt(last, last.count - 1);
+    }
+
+    /**
+     * Removes the first element equal to the given data in one pass.
+     * @param data the data to remove.
+     * @return whether an element was removed.
+     */
+    public boolean remove(T data) {
+        for (Node node = first; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                Object item = node.items[i];
+                if (data == null ? item == null : data.equals(item)) {
+                    removeAt(node, i);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Re-sets the list to empty as if the default constructor had just
+     * been called, keeping the node capacity
+     */
+    public void clear() {
+        first = null;
+        last = null;
+        length = 0;
+        modCount++;
+    }
+
+    /**
+     * Links a new empty node in front of the first one.
+     * @param node the new node
+     */
+    private void linkFirst(Node node) {
+        if (first == null) {
+            last = node;
+        } else {
+            node.next = first;
+            first.prev = node;
+        }
+        first = node;
+    }
+
+    /**
+     * Removes one element from a node. A node left empty is unlinked, and
+     * a node left at most half full is merged into its predecessor when
+     * the two fit in one node, so nodes stay dense as elements go.
+     * @param node the node holding the element
+     * @param i the index of the element within the node
+     * @return whether node was unlinked from the list
+     */
+    private boolean removeAt(Node node, int i) {
+        System.arraycopy(node.items, i + 1, node.items, i, node.count - i - 1);
+        node.items[--node.count] = null;
+        length--;
+        modCount++;
+        if (node.count == 0) {
+            unlink(node);
+            return true;
+        }
+        Node prev = node.prev;
+        if (node.count <= nodeCapacity / 2 && prev != null && prev.count + node.count <= nodeCapacity) {
+            System.arraycopy(node.items, 0, prev.items, prev.count, node.count);
+            prev.count += node.count;
+            unlink(node);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Unlinks a node from the chain.
+     * @param node the node to unlink
+     */
+    private void unlink(Node node) {
+        if (node.prev == null) {
+            first = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            last = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+    }
+
+    /**** ADDITIONAL OPERATIONS ****/
+
+    /**
+     * Converts the list to a String, with each value followed by a blank,
+     * and a new line character at the end, as LinkedList does
+     * @return the list as a String
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (Node node = first; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                result.append(node.items[i]).append(" ");
+            }
+        }
+        return result.append("\n").toString();
+    }
+
+    /**
+     * Determines whether the given Object is another UnrolledLinkedList
+     * containing the same data in the same order, however the elements
+     * are split between nodes
+     * @param obj another Object
+     * @return whether there is equality
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof UnrolledLinkedList)) {
+            return false;
+        }
+        UnrolledLinkedList<?> other = (UnrolledLinkedList<?>) obj;
+        if (length != other.length) {
+            return false;
+        }
+        Iterator<?> it = other.iterator();
+        for (Node node = first; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                Object item = node.items[i];
+                Object otherItem = it.next();
+                if (item == null ? otherItem != null : !item.equals(otherItem)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes a hash code from the elements in order, consistent
+     * with equals
+     * @return the hash code
+     */
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (Node node = first; node != null; node = node.next) {
+            for (int i = 0; i < node.count; i++) {
+                hash = 31 * hash + (node.items[i] == null ? 0 : node.items[i].hashCode());
+            }
+        }
+        return hash;
+    }
+}